@@ -0,0 +1,101 @@
+package org.example.foodanddrinkproject.cache;
+
+import org.example.foodanddrinkproject.dto.CartLineView;
+import org.example.foodanddrinkproject.dto.ProductDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory state of one user's ACTIVE cart, owned by ActiveCartCache.
+ * Callers lock the instance (see ActiveCartCache.withCart) for compound
+ * read-modify-write operations.
+ */
+public class ActiveCart {
+
+    private final Long cartId;
+    // productId -> line, in the order lines were added
+    private final Map<Long, CartLineView> lines = new LinkedHashMap<>();
+
+    private long version;
+    private long flushedVersion;
+    private boolean evicted;
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    ActiveCart(Long cartId, List<CartLineView> persistedLines) {
+        this.cartId = cartId;
+        persistedLines.forEach(line -> lines.merge(line.productId(), line,
+                (a, b) -> a.withQuantity(a.quantity() + b.quantity())));
+    }
+
+    public Long getCartId() {
+        return cartId;
+    }
+
+    public synchronized List<CartLineView> lines() {
+        return new ArrayList<>(lines.values());
+    }
+
+    public synchronized CartLineView line(Long productId) {
+        return lines.get(productId);
+    }
+
+    public synchronized void put(CartLineView line) {
+        lines.put(line.productId(), line);
+        version++;
+    }
+
+    public synchronized boolean remove(Long productId) {
+        boolean removed = lines.remove(productId) != null;
+        if (removed) {
+            version++;
+        }
+        return removed;
+    }
+
+    public synchronized void clear() {
+        if (!lines.isEmpty()) {
+            lines.clear();
+            version++;
+        }
+    }
+
+    // Catalog edits only refresh the displayed product data, the cart itself is unchanged
+    synchronized void refreshProduct(ProductDto product) {
+        CartLineView line = lines.get(product.getId());
+        if (line != null) {
+            lines.put(product.getId(), new CartLineView(product.getId(), product.getName(),
+                    product.getImageUrl(), product.getPrice(), product.getDiscountPrice(), line.quantity()));
+        }
+    }
+
+    synchronized boolean isDirty() {
+        return version != flushedVersion;
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    synchronized void markFlushed(long flushed) {
+        flushedVersion = Math.max(flushedVersion, flushed);
+    }
+
+    synchronized boolean isEvicted() {
+        return evicted;
+    }
+
+    synchronized void markEvicted() {
+        evicted = true;
+    }
+
+    void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    long lastAccessMillis() {
+        return lastAccessMillis;
+    }
+}
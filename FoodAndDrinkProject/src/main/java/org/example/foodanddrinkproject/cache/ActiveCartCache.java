@@ -0,0 +1,389 @@
+package org.example.foodanddrinkproject.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.example.foodanddrinkproject.dto.CartLineView;
+import org.example.foodanddrinkproject.entity.Cart;
+import org.example.foodanddrinkproject.entity.CartItem;
+import org.example.foodanddrinkproject.entity.User;
+import org.example.foodanddrinkproject.enums.CartStatus;
+import org.example.foodanddrinkproject.event.ProductChangedEvent;
+import org.example.foodanddrinkproject.exception.ResourceNotFoundException;
+import org.example.foodanddrinkproject.repository.CartItemRepository;
+import org.example.foodanddrinkproject.repository.CartRepository;
+import org.example.foodanddrinkproject.repository.ProductRepository;
+import org.example.foodanddrinkproject.repository.UserRepository;
+import org.example.foodanddrinkproject.util.InstanceLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Write-behind cache of ACTIVE carts keyed by user id. Cart endpoints work
+ * on the in-memory ActiveCart only; dirty carts are written to the
+ * cart/cart_items tables by CartCacheFlushScheduler in batches, before an
+ * idle cart is evicted, at shutdown, and inside placeOrder's transaction so
+ * that checkout always reads the cart the user sees.
+ * Changes made since the last flush are lost if the process crashes.
+ *
+ * The cached carts are the truth for this JVM only, so caching requires a
+ * single application instance: it holds a MySQL named lock for its lifetime
+ * and refuses to start when another instance already holds it. Deployments
+ * with several instances set app.cart.cache.enabled=false on all of them;
+ * every cart operation then reads and writes the tables directly, under a
+ * row lock on the user that checkout takes as well.
+ */
+@Component
+public class ActiveCartCache implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveCartCache.class);
+    private static final String INSTANCE_LOCK_NAME = "food_and_drink.cart_cache";
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    // Loads run on their own transaction: they may be called after the caller's commit
+    private final TransactionTemplate loadTemplate;
+    private final Duration idleTimeout;
+    private final int flushBatchSize;
+    private final boolean enabled;
+    private final DataSource dataSource;
+
+    // Held while carts are cached
+    private InstanceLock instanceLock;
+
+    private final Map<Long, ActiveCart> carts = new ConcurrentHashMap<>();
+    // Serialize loads of the same user (so only one ACTIVE cart is created) without
+    // running the load inside the map's bin lock
+    private final Object[] loadLocks = new Object[64];
+
+    public ActiveCartCache(CartRepository cartRepository,
+                           CartItemRepository cartItemRepository,
+                           ProductRepository productRepository,
+                           UserRepository userRepository,
+                           PlatformTransactionManager transactionManager,
+                           DataSource dataSource,
+                           @Value("${app.cart.cache.enabled:true}") boolean enabled,
+                           @Value("${app.cart.cache.idle-minutes:30}") long idleMinutes,
+                           @Value("${app.cart.cache.flush-batch-size:100}") int flushBatchSize) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.loadTemplate = new TransactionTemplate(transactionManager);
+        this.loadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < loadLocks.length; i++) {
+            loadLocks[i] = new Object();
+        }
+        this.idleTimeout = Duration.ofMinutes(idleMinutes);
+        this.flushBatchSize = flushBatchSize;
+        this.enabled = enabled;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Takes the single-instance lock before the web server starts taking requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            logger.info("Cart cache disabled, carts are read and written directly");
+            return;
+        }
+        try {
+            instanceLock = InstanceLock.tryAcquire(dataSource, INSTANCE_LOCK_NAME);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not take the cart cache instance lock", e);
+        }
+        if (instanceLock == null) {
+            throw new IllegalStateException("The cart cache is already enabled on another instance; " +
+                    "it only supports a single instance, set app.cart.cache.enabled=false on every instance");
+        }
+    }
+
+    /**
+     * Runs the action on the user's active cart while holding its lock,
+     * loading (or creating) the cart on first use.
+     */
+    public <T> T withCart(Long userId, Function<ActiveCart, T> action) {
+        if (!enabled) {
+            return withStoredCart(userId, action);
+        }
+        while (true) {
+            ActiveCart cart = getOrLoad(userId);
+            synchronized (cart) {
+                // Lost a race with eviction: load a fresh instance
+                if (cart.isEvicted()) {
+                    continue;
+                }
+                cart.touch();
+                return action.apply(cart);
+            }
+        }
+    }
+
+    // Uncached: the cart is read, changed and written in one transaction holding the user's row lock
+    private <T> T withStoredCart(Long userId, Function<ActiveCart, T> action) {
+        return transactionTemplate.execute(status -> {
+            lockUser(userId);
+            ActiveCart cart = read(userId);
+            T result = action.apply(cart);
+            if (cart.isDirty()) {
+                write(cart);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Writes the user's cart if it has unsaved changes. Joins the caller's
+     * transaction when there is one. Without the cache there is nothing to
+     * write; the user's cart operations are instead blocked until the
+     * caller's transaction ends, so checkout reads a cart nobody is changing.
+     */
+    public void flush(Long userId) {
+        if (!enabled) {
+            transactionTemplate.executeWithoutResult(status -> lockUser(userId));
+            return;
+        }
+        ActiveCart cart = carts.get(userId);
+        if (cart != null && cart.isDirty()) {
+            transactionTemplate.executeWithoutResult(status -> write(cart));
+        }
+    }
+
+    /**
+     * Drops the user's cart once the surrounding transaction commits, after
+     * checkout turned it into an order. The cart is not locked during
+     * checkout, so it may have changed after checkedOutLines were read:
+     * added lines and raised quantities are carried into the user's new
+     * ACTIVE cart rather than dropped with the old one.
+     */
+    public void evictAfterCommit(Long userId, Long cartId, List<CartLineView> checkedOutLines) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ActiveCart cart = carts.get(userId);
+                if (cart == null || !cart.getCartId().equals(cartId)) {
+                    return;
+                }
+                List<CartLineView> carried;
+                synchronized (cart) {
+                    cart.markEvicted();
+                    carts.remove(userId, cart);
+                    carried = linesNotCheckedOut(cart.lines(), checkedOutLines);
+                }
+                if (!carried.isEmpty()) {
+                    withCart(userId, next -> {
+                        carried.forEach(line -> {
+                            CartLineView existing = next.line(line.productId());
+                            next.put(existing != null ? existing.withQuantity(existing.quantity() + line.quantity()) : line);
+                        });
+                        return null;
+                    });
+                    logger.info("Carried {} cart lines changed during checkout into a new cart of user {}",
+                            carried.size(), userId);
+                }
+            }
+        });
+    }
+
+    private static List<CartLineView> linesNotCheckedOut(List<CartLineView> current, List<CartLineView> checkedOut) {
+        Map<Long, Integer> ordered = new HashMap<>();
+        checkedOut.forEach(line -> ordered.merge(line.productId(), line.quantity(), Integer::sum));
+
+        List<CartLineView> carried = new ArrayList<>();
+        for (CartLineView line : current) {
+            int remaining = line.quantity() - ordered.getOrDefault(line.productId(), 0);
+            if (remaining > 0) {
+                carried.add(new CartLineView(line.productId(), line.productName(), line.imageUrl(),
+                        line.price(), line.discountPrice(), remaining));
+            }
+        }
+        return carried;
+    }
+
+    /**
+     * Writes dirty carts, flushBatchSize carts per transaction, then evicts
+     * carts idle for longer than app.cart.cache.idle-minutes.
+     *
+     * @return the number of carts written
+     */
+    public int flushDirty() {
+        List<ActiveCart> dirty = new ArrayList<>();
+        for (ActiveCart cart : carts.values()) {
+            if (cart.isDirty()) {
+                dirty.add(cart);
+            }
+        }
+
+        int written = 0;
+        for (int from = 0; from < dirty.size(); from += flushBatchSize) {
+            List<ActiveCart> batch = dirty.subList(from, Math.min(from + flushBatchSize, dirty.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(this::write));
+                written += batch.size();
+            } catch (Exception e) {
+                // Carts stay dirty and are retried on the next run
+                logger.error("Error occurred while flushing {} carts", batch.size(), e);
+            }
+        }
+
+        evictIdle();
+        return written;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int written = flushDirty();
+        if (written > 0) {
+            logger.info("Flushed {} carts on shutdown", written);
+        }
+        if (instanceLock != null) {
+            try {
+                instanceLock.release();
+            } catch (SQLException e) {
+                logger.warn("Could not release the cart cache instance lock", e);
+            }
+        }
+    }
+
+    public int size() {
+        return carts.size();
+    }
+
+    /**
+     * Keeps displayed names and prices in line with the catalog.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.getChangeType()) {
+            case UPDATED -> carts.values().forEach(cart -> cart.refreshProduct(event.getProductDto()));
+            case DELETED -> carts.values().forEach(cart -> cart.remove(event.getProductId()));
+            default -> {
+                // Stock and rating changes are not shown in the cart
+            }
+        }
+    }
+
+    private ActiveCart getOrLoad(Long userId) {
+        ActiveCart cart = carts.get(userId);
+        if (cart != null) {
+            return cart;
+        }
+        synchronized (loadLocks[Math.floorMod(userId.hashCode(), loadLocks.length)]) {
+            cart = carts.get(userId);
+            if (cart == null) {
+                cart = load(userId);
+                carts.put(userId, cart);
+            }
+            return cart;
+        }
+    }
+
+    private ActiveCart load(Long userId) {
+        return loadTemplate.execute(status -> read(userId));
+    }
+
+    // Reads (or creates) the user's ACTIVE cart in the current transaction
+    private ActiveCart read(Long userId) {
+        Cart cart = cartRepository.findByUserIdAndStatus(userId, CartStatus.ACTIVE)
+                .orElseGet(() -> {
+                    User user = userRepository.findById(userId)
+                            .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+                    Cart newCart = new Cart();
+                    newCart.setUser(user);
+                    newCart.setStatus(CartStatus.ACTIVE);
+                    return cartRepository.save(newCart);
+                });
+        return new ActiveCart(cart.getId(), cartItemRepository.findLinesByCartId(cart.getId()));
+    }
+
+    private void lockUser(Long userId) {
+        userRepository.findByIdWithLock(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+    }
+
+    /**
+     * Brings cart_items of the cart in line with a snapshot of the in-memory
+     * lines. The cart is marked clean only once the transaction commits.
+     */
+    private void write(ActiveCart activeCart) {
+        long version;
+        Map<Long, CartLineView> wanted = new HashMap<>();
+        synchronized (activeCart) {
+            version = activeCart.version();
+            activeCart.lines().forEach(line -> wanted.put(line.productId(), line));
+        }
+
+        Cart cart = cartRepository.findById(activeCart.getCartId()).orElse(null);
+        if (cart == null || cart.getStatus() != CartStatus.ACTIVE) {
+            // Checked out or removed elsewhere, nothing left to save into
+            logger.warn("Dropping unsaved changes of cart {}: no longer active", activeCart.getCartId());
+            activeCart.markFlushed(version);
+            return;
+        }
+
+        Iterator<CartItem> it = cart.getItems().iterator();
+        while (it.hasNext()) {
+            CartItem item = it.next();
+            CartLineView line = wanted.remove(item.getProduct().getId());
+            if (line == null) {
+                it.remove();
+                item.setCart(null);
+            } else if (item.getQuantity() != line.quantity()) {
+                item.setQuantity(line.quantity());
+            }
+        }
+        for (CartLineView line : wanted.values()) {
+            CartItem item = new CartItem();
+            item.setProduct(productRepository.getReferenceById(line.productId()));
+            item.setQuantity(line.quantity());
+            cart.addItem(item);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                activeCart.markFlushed(version);
+            }
+        });
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeout.toMillis();
+        carts.forEach((userId, cart) -> {
+            if (cart.lastAccessMillis() >= cutoff) {
+                return;
+            }
+            synchronized (cart) {
+                // Dirty carts are kept until a flush succeeds
+                if (!cart.isDirty() && cart.lastAccessMillis() < cutoff) {
+                    cart.markEvicted();
+                    carts.remove(userId, cart);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.foodanddrinkproject.cache;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Small size-bounded LRU cache with expire-after-write.
+ * Loads go through a generation check so a value read from the database
+ * before an invalidation is never stored after it. The last few
+ * invalidations are remembered, so a load is only discarded when one of
+ * them actually covers its key.
+ */
+public class BoundedCache<K, V> {
+
+    private static final int MAX_RECENT_INVALIDATIONS = 64;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final AtomicLong generation = new AtomicLong();
+    // Newest last; generations are consecutive
+    private final ArrayDeque<Invalidation<K, V>> recentInvalidations = new ArrayDeque<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                boolean evict = size() > BoundedCache.this.maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+    }
+
+    public V get(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !entry.isExpired(ttlNanos)) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Returns the cached value or loads it. A null result from the loader is not cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (entries) {
+                if (!invalidatedSince(loadGeneration, key, value)) {
+                    entries.put(key, new Entry<>(value));
+                }
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value));
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            record((k, v) -> k.equals(key));
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        synchronized (entries) {
+            record(predicate);
+            entries.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue().value));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            record((k, v) -> true);
+            entries.clear();
+        }
+    }
+
+    // Callers hold the entries lock
+    private void record(BiPredicate<K, V> predicate) {
+        recentInvalidations.addLast(new Invalidation<>(generation.incrementAndGet(), predicate));
+        if (recentInvalidations.size() > MAX_RECENT_INVALIDATIONS) {
+            recentInvalidations.removeFirst();
+        }
+    }
+
+    // Callers hold the entries lock
+    private boolean invalidatedSince(long loadGeneration, K key, V value) {
+        if (generation.get() == loadGeneration) {
+            return false;
+        }
+        Invalidation<K, V> oldest = recentInvalidations.peekFirst();
+        if (oldest == null || oldest.generation() > loadGeneration + 1) {
+            // Some invalidations since the load are forgotten; assume they covered the key
+            return true;
+        }
+        for (Invalidation<K, V> invalidation : recentInvalidations) {
+            if (invalidation.generation() > loadGeneration && invalidation.predicate().test(key, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private record Invalidation<K, V>(long generation, BiPredicate<K, V> predicate) {
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long writtenAt = System.nanoTime();
+
+        private Entry(V value) {
+            this.value = value;
+        }
+
+        private boolean isExpired(long ttlNanos) {
+            return System.nanoTime() - writtenAt > ttlNanos;
+        }
+    }
+}
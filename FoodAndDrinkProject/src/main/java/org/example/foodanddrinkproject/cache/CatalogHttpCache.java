@@ -0,0 +1,120 @@
+package org.example.foodanddrinkproject.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for the public catalog endpoints. The validators come from
+ * CatalogVersions (see there for how long they stay valid), so a request whose If-None-Match (or, without one,
+ * If-Modified-Since) still matches is answered 304 before the service is
+ * called: no query and no serialization.
+ *
+ * Responses carry a weak ETag, since compression may change the bytes, and
+ * a Cache-Control policy per endpoint. catalog.http.responses{endpoint,status}
+ * gives the 304 rate.
+ */
+@Component
+public class CatalogHttpCache {
+
+    public enum Endpoint {
+        PRODUCTS("products"),
+        PRODUCT("product"),
+        CATEGORIES("categories");
+
+        private final String tag;
+
+        Endpoint(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Endpoint, CacheControl> policies = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Counter> notModified = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Counter> modified = new EnumMap<>(Endpoint.class);
+
+    public CatalogHttpCache(MeterRegistry meterRegistry,
+                            @Value("${app.http.cache.products.max-age-seconds:30}") long productsMaxAge,
+                            @Value("${app.http.cache.product.max-age-seconds:60}") long productMaxAge,
+                            @Value("${app.http.cache.categories.max-age-seconds:300}") long categoriesMaxAge) {
+        policies.put(Endpoint.PRODUCTS, policy(productsMaxAge));
+        policies.put(Endpoint.PRODUCT, policy(productMaxAge));
+        policies.put(Endpoint.CATEGORIES, policy(categoriesMaxAge));
+        for (Endpoint endpoint : Endpoint.values()) {
+            notModified.put(endpoint, counter(meterRegistry, endpoint, "304"));
+            modified.put(endpoint, counter(meterRegistry, endpoint, "200"));
+        }
+    }
+
+    /**
+     * @param body loads the content; only called when the client copy is stale
+     */
+    public <T> ResponseEntity<T> respond(HttpServletRequest request, Endpoint endpoint,
+                                         CatalogVersions.Validator validator, Supplier<T> body) {
+        ETag etag = new ETag(validator.tag(), true);
+        long lastModified = validator.lastModified();
+        if (isNotModified(request, etag, lastModified)) {
+            notModified.get(endpoint).increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag.formattedTag())
+                    .lastModified(lastModified)
+                    .cacheControl(policies.get(endpoint))
+                    .build();
+        }
+
+        T content = body.get();
+        modified.get(endpoint).increment();
+        return ResponseEntity.ok()
+                .eTag(etag.formattedTag())
+                .lastModified(lastModified)
+                .cacheControl(policies.get(endpoint))
+                .body(content);
+    }
+
+    private static boolean isNotModified(HttpServletRequest request, ETag etag, long lastModified) {
+        var ifNoneMatch = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.hasMoreElements()) {
+            for (String header : Collections.list(ifNoneMatch)) {
+                for (ETag candidate : ETag.parse(header)) {
+                    // If-None-Match always uses the weak comparison
+                    if (candidate.isWildcard() || candidate.compare(etag, false)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static CacheControl policy(long maxAgeSeconds) {
+        // Public catalog data, same for every user; revalidate once max-age is up
+        return CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic().mustRevalidate();
+    }
+
+    private static Counter counter(MeterRegistry registry, Endpoint endpoint, String status) {
+        return Counter.builder("catalog.http.responses")
+                .tag("endpoint", endpoint.tag)
+                .tag("status", status)
+                .description("Catalog GET responses, 304 when the client copy was still current")
+                .register(registry);
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.foodanddrinkproject.cache;
+
+import org.example.foodanddrinkproject.event.CategoryChangedEvent;
+import org.example.foodanddrinkproject.event.ImageVariantsGeneratedEvent;
+import org.example.foodanddrinkproject.event.ProductChangedEvent;
+import org.example.foodanddrinkproject.repository.CategoryRepository;
+import org.example.foodanddrinkproject.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version stamps of the public catalog, turned into the ETag and
+ * Last-Modified of the product and category endpoints so that a conditional
+ * GET can be answered without touching the database.
+ *
+ * A version is an epoch millisecond timestamp on a whole second, so it also
+ * serves as Last-Modified. Versions are bumped by the change events after
+ * commit, and every bump moves to a later second. ProductCatalogCache drops
+ * the affected entries before the bump (its listeners are ordered first), so
+ * content served under a new version is never older than the event.
+ *
+ * - product(id): one product; bumped by any event for that product,
+ *   including new image variants of its image
+ * - productList(): every product listing; bumped by any product event
+ * - shared(): data embedded in product DTOs that is not the product itself
+ *   (category names)
+ * - categories(): the category list
+ *
+ * Two things bound how long a validator can be trusted:
+ * - The seed, the newest products/categories updatedAt at startup, is part
+ *   of every ETag. Every catalog write touches updatedAt (the rating
+ *   average and image variant updates included), so an ETag from before a
+ *   restart only matches again if nothing has changed since.
+ * - Events only reach this instance. With several instances, one that
+ *   missed a write would keep confirming the old ETag. So every ETag also
+ *   carries the current validity window (app.http.cache.validator-ttl-seconds),
+ *   and Last-Modified is never older than the window's start: when the
+ *   window rolls over, clients revalidate against freshly loaded data.
+ */
+@Component
+public class CatalogVersions {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogVersions.class);
+
+    /**
+     * What a response is validated by: a strong-looking tag (sent weak by
+     * CatalogHttpCache) and the Last-Modified epoch millis.
+     */
+    public record Validator(String tag, long lastModified) {
+    }
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final long windowMillis;
+
+    // Until seeded, the startup time is newer than anything a client has seen
+    private final long startup = toSecond(System.currentTimeMillis());
+    private volatile long seed = startup;
+    private volatile long productSeed = startup;
+    private final Map<Long, Long> products = new ConcurrentHashMap<>();
+    private final AtomicLong productList = new AtomicLong(startup);
+    private final AtomicLong shared = new AtomicLong(startup);
+    private final AtomicLong categories = new AtomicLong(startup);
+
+    public CatalogVersions(ProductRepository productRepository, CategoryRepository categoryRepository,
+                           @Value("${app.http.cache.validator-ttl-seconds:300}") long validatorTtlSeconds) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.windowMillis = Math.max(1, validatorTtlSeconds) * 1000;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        long productsUpdated = toVersion(productRepository.findMaxUpdatedAt());
+        long categoriesUpdated = toVersion(categoryRepository.findMaxUpdatedAt());
+        long catalogUpdated = Math.max(productsUpdated, categoriesUpdated);
+
+        // A bump between startup and now wins over the seed
+        productSeed = productsUpdated;
+        productList.compareAndSet(startup, productsUpdated);
+        shared.compareAndSet(startup, catalogUpdated);
+        categories.compareAndSet(startup, categoriesUpdated);
+        seed = catalogUpdated;
+        logger.info("Catalog versions seeded: products {}, categories {}", productsUpdated, categoriesUpdated);
+    }
+
+    public Validator product(Long productId) {
+        long version = products.getOrDefault(productId, productSeed);
+        long sharedVersion = shared.get();
+        return validator("product-" + productId + "-" + Long.toHexString(version) + "-" + Long.toHexString(sharedVersion),
+                Math.max(version, sharedVersion));
+    }
+
+    // Same for every filter and page: any product change may move rows between pages
+    public Validator productList() {
+        long version = productList.get();
+        long sharedVersion = shared.get();
+        return validator("products-" + Long.toHexString(version) + "-" + Long.toHexString(sharedVersion),
+                Math.max(version, sharedVersion));
+    }
+
+    public Validator categories() {
+        long version = categories.get();
+        return validator("categories-" + Long.toHexString(version), version);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        bumpProduct(event.getProductId());
+        productList.updateAndGet(CatalogVersions::next);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        categories.updateAndGet(CatalogVersions::next);
+        shared.updateAndGet(CatalogVersions::next);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageVariantsGenerated(ImageVariantsGeneratedEvent event) {
+        event.getProductIds().forEach(this::bumpProduct);
+        productList.updateAndGet(CatalogVersions::next);
+    }
+
+    private void bumpProduct(Long productId) {
+        products.compute(productId, (id, version) -> next(version != null ? version : productSeed));
+    }
+
+    private Validator validator(String version, long lastModified) {
+        long window = System.currentTimeMillis() / windowMillis;
+        String tag = version + "-" + Long.toHexString(seed) + "-" + Long.toHexString(window);
+        return new Validator(tag, Math.max(lastModified, window * windowMillis));
+    }
+
+    private static long next(long version) {
+        return Math.max(toSecond(System.currentTimeMillis()), version + 1000);
+    }
+
+    private long toVersion(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return startup;
+        }
+        return toSecond(updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static long toSecond(long epochMillis) {
+        return epochMillis - Math.floorMod(epochMillis, 1000L);
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.foodanddrinkproject.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.foodanddrinkproject.dto.ProductDto;
+import org.example.foodanddrinkproject.event.CategoryChangedEvent;
+import org.example.foodanddrinkproject.event.ImageVariantsGeneratedEvent;
+import org.example.foodanddrinkproject.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for the public catalog: ProductDto by id and recent
+ * /api/products result pages. Product and category writes invalidate it
+ * after commit; the TTL bounds staleness of anything not covered by an event.
+ *
+ * The listeners run before CatalogVersions bumps the HTTP validators for the
+ * same event, so a response carrying the new ETag is never built from an
+ * entry the event made stale.
+ */
+@Component
+public class ProductCatalogCache {
+
+    private final BoundedCache<Long, ProductDto> products;
+    private final BoundedCache<PageKey, Page<ProductDto>> pages;
+
+    /**
+     * A listing query and whether its result depends on stock or rating
+     * beyond the values shown: a stock or rating filter or sort can change
+     * which products are on a page, so such pages are dropped by every STOCK
+     * or RATING event. Other pages are dropped only if they show the product.
+     */
+    private record PageKey(Object query, boolean stockDependent, boolean ratingDependent) {
+    }
+
+    public ProductCatalogCache(MeterRegistry meterRegistry,
+                               @Value("${app.cache.catalog.max-products:2000}") int maxProducts,
+                               @Value("${app.cache.catalog.max-pages:500}") int maxPages,
+                               @Value("${app.cache.catalog.ttl-seconds:60}") long ttlSeconds) {
+        this.products = new BoundedCache<>(maxProducts, Duration.ofSeconds(ttlSeconds));
+        this.pages = new BoundedCache<>(maxPages, Duration.ofSeconds(ttlSeconds));
+        registerMetrics(meterRegistry, "product", products);
+        registerMetrics(meterRegistry, "page", pages);
+    }
+
+    public ProductDto getProduct(Long productId, Function<Long, ProductDto> loader) {
+        return products.get(productId, loader);
+    }
+
+    public Page<ProductDto> getPage(Object queryKey, boolean stockDependent, boolean ratingDependent,
+                                    Function<Object, Page<ProductDto>> loader) {
+        return pages.get(new PageKey(queryKey, stockDependent, ratingDependent), key -> loader.apply(key.query()));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.getProductId();
+        products.invalidate(productId);
+        switch (event.getChangeType()) {
+            // Published for every product of every order; only stock-sorted pages can move
+            case STOCK -> pages.invalidateIf((key, page) -> key.stockDependent() || shows(page, productId));
+            case RATING -> pages.invalidateIf((key, page) -> key.ratingDependent() || shows(page, productId));
+            // Page membership and ordering may change with any other product write
+            default -> pages.invalidateAll();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        products.invalidateIf((id, dto) -> Objects.equals(dto.getCategoryId(), event.getCategoryId()));
+        pages.invalidateAll();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageVariantsGenerated(ImageVariantsGeneratedEvent event) {
+        // DTOs of these products still point at the original image instead of the
+        // new variants; no listing changes membership or order
+        Set<Long> productIds = Set.copyOf(event.getProductIds());
+        productIds.forEach(products::invalidate);
+        pages.invalidateIf((key, page) -> page.getContent().stream()
+                .anyMatch(dto -> productIds.contains(dto.getId())));
+    }
+
+    private static boolean shows(Page<ProductDto> page, Long productId) {
+        return page.getContent().stream().anyMatch(dto -> productId.equals(dto.getId()));
+    }
+
+    private static void registerMetrics(MeterRegistry registry, String cacheName, BoundedCache<?, ?> cache) {
+        FunctionCounter.builder("catalog.cache.hits", cache, BoundedCache::hitCount)
+                .tag("cache", cacheName)
+                .description("Catalog cache lookups served from memory")
+                .register(registry);
+        FunctionCounter.builder("catalog.cache.misses", cache, BoundedCache::missCount)
+                .tag("cache", cacheName)
+                .description("Catalog cache lookups that went to the database")
+                .register(registry);
+        FunctionCounter.builder("catalog.cache.evictions", cache, BoundedCache::evictionCount)
+                .tag("cache", cacheName)
+                .register(registry);
+        Gauge.builder("catalog.cache.size", cache, BoundedCache::size)
+                .tag("cache", cacheName)
+                .register(registry);
+    }
+}
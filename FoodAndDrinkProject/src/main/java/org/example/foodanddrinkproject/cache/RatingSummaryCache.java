@@ -0,0 +1,50 @@
+package org.example.foodanddrinkproject.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.foodanddrinkproject.dto.RatingAggregate;
+import org.example.foodanddrinkproject.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Rating aggregates by product id for the product detail page. Rating
+ * writes (and product deletion) invalidate the product's entry after commit.
+ */
+@Component
+public class RatingSummaryCache {
+
+    private final BoundedCache<Long, RatingAggregate> summaries;
+
+    public RatingSummaryCache(MeterRegistry meterRegistry,
+                              @Value("${app.cache.rating-summary.max-entries:5000}") int maxEntries,
+                              @Value("${app.cache.rating-summary.ttl-seconds:300}") long ttlSeconds) {
+        this.summaries = new BoundedCache<>(maxEntries, Duration.ofSeconds(ttlSeconds));
+
+        FunctionCounter.builder("rating.summary.cache.hits", summaries, BoundedCache::hitCount)
+                .description("Rating summaries served from memory")
+                .register(meterRegistry);
+        FunctionCounter.builder("rating.summary.cache.misses", summaries, BoundedCache::missCount)
+                .description("Rating summaries read from the database")
+                .register(meterRegistry);
+        Gauge.builder("rating.summary.cache.size", summaries, BoundedCache::size)
+                .register(meterRegistry);
+    }
+
+    public RatingAggregate get(Long productId, Function<Long, RatingAggregate> loader) {
+        return summaries.get(productId, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getChangeType() == ProductChangedEvent.ChangeType.RATING
+                || event.getChangeType() == ProductChangedEvent.ChangeType.DELETED) {
+            summaries.invalidate(event.getProductId());
+        }
+    }
+}
@@ -4,38 +4,63 @@ import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
-public class AsyncConfig implements AsyncConfigurer {
+public class AsyncConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
 
-    @Bean(name = "asyncExecutor")
-    public Executor asyncExecutor() {
+    /**
+     * Delivers outbox notifications (see NotificationDispatcher). A dispatch
+     * batch is bounded by app.notification.batch-size, so the queue is too.
+     * With app.notification.virtual-threads every delivery gets its own
+     * virtual thread; the dispatcher's per-channel semaphores then bound the
+     * number of concurrent SMTP and Chatwork calls.
+     */
+    @Bean(name = "notificationExecutor")
+    public Executor notificationExecutor(@Value("${app.notification.virtual-threads:false}") boolean virtualThreads,
+                                         @Value("${app.notification.max-concurrency:4}") int maxConcurrency,
+                                         @Value("${app.notification.batch-size:50}") int batchSize) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("notification-vt-");
+            executor.setVirtualThreads(true);
+            executor.setTaskTerminationTimeout(60_000);
+            logger.info("Notification executor uses virtual threads");
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("async-notification-");
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(batchSize);
+        executor.setThreadNamePrefix("notification-");
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
-        
-        executor.setRejectedExecutionHandler((r, exec) -> 
-            logger.warn("Task rejected from async executor: {}", r)
-        );
-        
         executor.initialize();
-        logger.info("AsyncExecutor initialized with core pool size: {}, max pool size: {}", 
-                   executor.getCorePoolSize(), executor.getMaxPoolSize());
         return executor;
     }
 
-    @Override
-    public Executor getAsyncExecutor() {
-        return asyncExecutor();
+    /**
+     * Builds image variants after uploads (see ImageVariants). Resizing is
+     * CPU and memory heavy, so a couple of threads is enough; when the queue
+     * is full the upload is simply served without variants.
+     */
+    @Bean(name = "imageExecutor")
+    public Executor imageExecutor(@Value("${app.media.variants.threads:2}") int threads,
+                                  @Value("${app.media.variants.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
     }
 }
@@ -0,0 +1,30 @@
+package org.example.foodanddrinkproject.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+    // Lazy associations and EAGER collections (e.g. User.roles) of a page of
+    // entities are loaded with IN (...) batches instead of one query per row
+    @Value("${app.jpa.batch-fetch-size:50}")
+    private int batchFetchSize;
+
+    // Dirty products of one order (stock reservation) are flushed as a single
+    // JDBC batch, sorted by primary key to keep the row lock order stable
+    @Value("${app.jpa.jdbc-batch-size:50}")
+    private int jdbcBatchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.default_batch_fetch_size", batchFetchSize);
+            properties.putIfAbsent("hibernate.jdbc.batch_size", jdbcBatchSize);
+            properties.putIfAbsent("hibernate.order_updates", true);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+        };
+    }
+}
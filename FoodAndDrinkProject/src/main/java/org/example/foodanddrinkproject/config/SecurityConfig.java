@@ -8,6 +8,7 @@ import org.example.foodanddrinkproject.security.oauth2.OAuth2AuthenticationFailu
 import org.example.foodanddrinkproject.security.oauth2.OAuth2AuthenticationSuccessHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -68,6 +69,9 @@ public class SecurityConfig {
 
                         .requestMatchers("/api/auth/**", "/oauth2/**").permitAll()
                         .requestMatchers("/api/products/**", "/api/categories/**", "/api/ratings/**").permitAll()
+                        // Product images only; other uploads (e.g. suggestion photos) stay private
+                        .requestMatchers(HttpMethod.GET, "/uploads/products/**").permitAll()
+                        .requestMatchers(HttpMethod.HEAD, "/uploads/products/**").permitAll()
 
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**").permitAll()
 
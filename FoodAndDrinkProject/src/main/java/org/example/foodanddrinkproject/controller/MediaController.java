@@ -0,0 +1,30 @@
+package org.example.foodanddrinkproject.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.foodanddrinkproject.media.UploadedMediaServer;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+@Controller
+public class MediaController {
+
+    private static final String PREFIX = "/uploads/";
+
+    private final UploadedMediaServer mediaServer;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public MediaController(UploadedMediaServer mediaServer) {
+        this.mediaServer = mediaServer;
+    }
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        mediaServer.serve(path.substring(PREFIX.length()), request, response);
+    }
+}
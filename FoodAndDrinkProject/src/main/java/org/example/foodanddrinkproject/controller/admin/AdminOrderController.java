@@ -1,6 +1,7 @@
 package org.example.foodanddrinkproject.controller.admin;
 
 import org.example.foodanddrinkproject.dto.AdminUpdateOrderRequest;
+import org.example.foodanddrinkproject.dto.CursorPage;
 import org.example.foodanddrinkproject.dto.OrderDto;
 import org.example.foodanddrinkproject.enums.OrderStatus;
 import org.example.foodanddrinkproject.service.OrderService;
@@ -32,6 +33,21 @@ public class AdminOrderController {
         return ResponseEntity.ok(orderService.getAllOrders(status, userId, pageable));
     }
 
+    /**
+     * Same listing with cursor paging, newest first; no count query, so deep
+     * pages cost the same as the first one.
+     * GET /api/admin/orders/feed?cursor=...&size=20
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPage<OrderDto>> getOrderFeed(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(orderService.getAllOrders(status, userId, cursor, size));
+    }
+
 
     @PutMapping("/{id}")
     public ResponseEntity<OrderDto> updateOrder(
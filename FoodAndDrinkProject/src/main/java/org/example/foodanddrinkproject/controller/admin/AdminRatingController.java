@@ -0,0 +1,32 @@
+package org.example.foodanddrinkproject.controller.admin;
+
+import org.example.foodanddrinkproject.dto.CursorPage;
+import org.example.foodanddrinkproject.dto.RatingDto;
+import org.example.foodanddrinkproject.service.RatingService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/ratings")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminRatingController {
+
+    private final RatingService ratingService;
+
+    public AdminRatingController(RatingService ratingService) {
+        this.ratingService = ratingService;
+    }
+
+    /**
+     * Get ratings of all products, or of one product, newest first with cursor paging.
+     * GET /api/admin/ratings/feed?productId=1&cursor=...&size=20
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPage<RatingDto>> getRatingFeed(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ratingService.getRatings(productId, cursor, size));
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.foodanddrinkproject.controller.admin;
 
 import org.example.foodanddrinkproject.dto.ApiResponse;
+import org.example.foodanddrinkproject.dto.CursorPage;
 import org.example.foodanddrinkproject.dto.UserProfileDto;
 import org.example.foodanddrinkproject.service.UserService;
 import org.springdoc.core.annotations.ParameterObject;
@@ -33,6 +34,17 @@ public class AdminUserController {
         return ResponseEntity.ok(userService.getAllUsers(pageable));
     }
 
+    /**
+     * Get users with cursor paging, newest first (no total count).
+     * GET /api/admin/users/feed?cursor=...&size=20
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPage<UserProfileDto>> getUserFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userService.getAllUsers(cursor, size));
+    }
+
     /**
      * Ban or Unban a user.
      * PUT /api/admin/users/{id}/ban?enable=false
@@ -45,7 +45,7 @@ public class AuthController {
     public ResponseEntity<LoginSuccessResponse> oauthLoginSuccess(@RequestParam("token") String token) {
         Long userId = tokenProvider.getUserIdFromJWT(token);
 
-        UserPrincipal userPrincipal = (UserPrincipal) customUserDetailsService.loadUserById(userId);
+        UserPrincipal userPrincipal = customUserDetailsService.loadUserById(userId);
 
         UserSummaryDto userSummary = new UserSummaryDto(
                 userPrincipal.getId(),
@@ -1,6 +1,9 @@
 package org.example.foodanddrinkproject.controller.api;
 
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.foodanddrinkproject.cache.CatalogHttpCache;
+import org.example.foodanddrinkproject.cache.CatalogVersions;
 import org.example.foodanddrinkproject.dto.CategoryDto;
 import org.example.foodanddrinkproject.service.CategoryService;
 import org.springframework.http.ResponseEntity;
@@ -14,15 +17,21 @@ import java.util.List;
 @RequestMapping("/api/categories")
 public class CategoryController {
     private final CategoryService categoryService;
+    private final CatalogVersions catalogVersions;
+    private final CatalogHttpCache httpCache;
 
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CatalogVersions catalogVersions,
+                              CatalogHttpCache httpCache) {
         this.categoryService = categoryService;
+        this.catalogVersions = catalogVersions;
+        this.httpCache = httpCache;
     }
 
 
     @GetMapping
-    public ResponseEntity<List<CategoryDto>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<CategoryDto>> getAllCategories(HttpServletRequest request) {
+        return httpCache.respond(request, CatalogHttpCache.Endpoint.CATEGORIES, catalogVersions.categories(),
+                categoryService::getAllCategories);
     }
 }
@@ -1,11 +1,14 @@
 package org.example.foodanddrinkproject.controller.api;
 
+import org.example.foodanddrinkproject.dto.CursorPage;
 import org.example.foodanddrinkproject.dto.OrderDto;
+import org.example.foodanddrinkproject.dto.OrderSummaryDto;
 import org.example.foodanddrinkproject.dto.PlaceOrderRequest;
 import org.example.foodanddrinkproject.security.CurrentUser;
 import org.example.foodanddrinkproject.security.UserPrincipal;
 import org.example.foodanddrinkproject.service.OrderService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -32,9 +35,29 @@ public class OrderController {
         return new ResponseEntity<>(order, HttpStatus.CREATED);
     }
 
+    /**
+     * Every order of the current user with all of its items.
+     * Kept for existing clients; new clients should page through /history and
+     * fetch a single order with /{id}.
+     */
     @GetMapping
     public ResponseEntity<List<OrderDto>> getMyOrders(@CurrentUser UserPrincipal userPrincipal) {
-        return ResponseEntity.ok(orderService.getMyOrders(userPrincipal.getId()));
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "</api/orders/history>; rel=\"successor-version\"")
+                .body(orderService.getMyOrders(userPrincipal.getId()));
+    }
+
+    /**
+     * Order history of the current user, newest first, without line items.
+     * GET /api/orders/history?cursor=...&size=20
+     */
+    @GetMapping("/history")
+    public ResponseEntity<CursorPage<OrderSummaryDto>> getMyOrderHistory(
+            @CurrentUser UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getMyOrderHistory(userPrincipal.getId(), cursor, size));
     }
 
     @GetMapping("/{id}")
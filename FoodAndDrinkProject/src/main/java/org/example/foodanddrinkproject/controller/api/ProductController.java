@@ -2,6 +2,9 @@ package org.example.foodanddrinkproject.controller.api;
 
 import java.math.BigDecimal;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.foodanddrinkproject.cache.CatalogHttpCache;
+import org.example.foodanddrinkproject.cache.CatalogVersions;
 import org.example.foodanddrinkproject.dto.ProductDto;
 import org.example.foodanddrinkproject.enums.ProductType;
 import org.example.foodanddrinkproject.service.ProductService;
@@ -17,9 +20,14 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogVersions catalogVersions;
+    private final CatalogHttpCache httpCache;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, CatalogVersions catalogVersions,
+                             CatalogHttpCache httpCache) {
         this.productService = productService;
+        this.catalogVersions = catalogVersions;
+        this.httpCache = httpCache;
     }
 
     @GetMapping
@@ -31,14 +39,17 @@ public class ProductController {
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) Double minRating,
-            @ParameterObject @PageableDefault(size = 10, sort = "name") Pageable pageable) {
+            @ParameterObject @PageableDefault(size = 10) Pageable pageable,
+            HttpServletRequest request) {
 
-        return ResponseEntity.ok(productService.getAllProducts(
-                name, brand, categoryId, type, minPrice, maxPrice, minRating, pageable));
+        return httpCache.respond(request, CatalogHttpCache.Endpoint.PRODUCTS, catalogVersions.productList(),
+                () -> productService.getAllProducts(
+                        name, brand, categoryId, type, minPrice, maxPrice, minRating, pageable));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id, HttpServletRequest request) {
+        return httpCache.respond(request, CatalogHttpCache.Endpoint.PRODUCT, catalogVersions.product(id),
+                () -> productService.getProductById(id));
     }
 }
@@ -2,6 +2,7 @@ package org.example.foodanddrinkproject.controller.api;
 
 import jakarta.validation.Valid;
 import org.example.foodanddrinkproject.dto.CreateRatingRequest;
+import org.example.foodanddrinkproject.dto.CursorPage;
 import org.example.foodanddrinkproject.dto.ProductRatingSummaryDto;
 import org.example.foodanddrinkproject.dto.RatingDto;
 import org.example.foodanddrinkproject.security.CurrentUser;
@@ -33,6 +34,18 @@ public class RatingController {
         return ResponseEntity.ok(ratingService.getProductRatingSummary(productId, userId));
     }
 
+    /**
+     * Reviews of a product, newest first, with cursor paging (public endpoint)
+     * Pass nextCursor from the previous response to get the following page
+     */
+    @GetMapping("/{productId}/reviews")
+    public ResponseEntity<CursorPage<RatingDto>> getProductReviews(
+            @PathVariable Long productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ratingService.getRatings(productId, cursor, size));
+    }
+
     @PostMapping("/{productId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<RatingDto> createRating(
@@ -7,10 +7,10 @@ import java.math.BigDecimal;
 @Getter
 @Setter
 public class CartItemDto {
-    private Long id; // CartItem ID
     private Long productId;
     private String productName;
     private String imageUrl;
+    private String thumbnailUrl; // imageUrl until the thumbnail is generated
     private BigDecimal price; // Price per unit
     private int quantity;
     private BigDecimal subtotal; // price * quantity
@@ -0,0 +1,27 @@
+package org.example.foodanddrinkproject.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One cart line with just the product columns needed for pricing,
+ * read by CartItemRepository.findLinesByCartId without loading Product entities.
+ */
+public record CartLineView(Long productId,
+                           String productName,
+                           String imageUrl,
+                           BigDecimal price,
+                           BigDecimal discountPrice,
+                           int quantity) {
+
+    public BigDecimal unitPrice() {
+        return discountPrice != null ? discountPrice : price;
+    }
+
+    public BigDecimal subtotal() {
+        return unitPrice().multiply(BigDecimal.valueOf(quantity));
+    }
+
+    public CartLineView withQuantity(int newQuantity) {
+        return new CartLineView(productId, productName, imageUrl, price, discountPrice, newQuantity);
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.foodanddrinkproject.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data stored (as JSON) with an outbox notification.
+ */
+@Getter
+@Setter
+public class NotificationPayload {
+    private OrderDto order;
+    // Only for ORDER_STATUS_UPDATE
+    private String oldStatus;
+    private String newStatus;
+}
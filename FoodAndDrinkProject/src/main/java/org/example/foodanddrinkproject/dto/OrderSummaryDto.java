@@ -0,0 +1,22 @@
+package org.example.foodanddrinkproject.dto;
+
+import org.example.foodanddrinkproject.enums.OrderStatus;
+import org.example.foodanddrinkproject.enums.PaymentMethod;
+import org.example.foodanddrinkproject.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of a customer's order history: the order header and its number of
+ * lines, without the lines themselves. Read straight from the orders table by
+ * OrderRepository; the full order comes from GET /api/orders/{id}.
+ */
+public record OrderSummaryDto(Long id,
+                              LocalDateTime createdAt,
+                              OrderStatus orderStatus,
+                              PaymentStatus paymentStatus,
+                              PaymentMethod paymentMethod,
+                              BigDecimal totalAmount,
+                              long itemCount) {
+}
@@ -15,6 +15,10 @@ public class ProductDto {
     private BigDecimal price;
     private BigDecimal discountPrice;
     private String imageUrl;
+    // Resized copies of imageUrl; each is imageUrl itself until generated
+    private String thumbnailUrl;
+    private String cardImageUrl;
+    private String detailImageUrl;
     private String sku;
     private String brand;
     private Double weight;
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,5 +15,6 @@ public class ProductRatingSummaryDto {
     private Long productId;
     private double averageRating;
     private long totalReviews;
+    private Map<Integer, Long> starDistribution; // stars (5..1) -> number of ratings
     private RatingDto userRating; // Current user's rating, null if not rated
 }
@@ -0,0 +1,28 @@
+package org.example.foodanddrinkproject.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Count, average and star histogram of a product's ratings, read either
+ * from product_rating_stats or by RatingRepository.aggregateByProductId.
+ */
+public record RatingAggregate(long count,
+                              double average,
+                              long star1,
+                              long star2,
+                              long star3,
+                              long star4,
+                              long star5) {
+
+    // Stars (5..1) -> number of ratings
+    public Map<Integer, Long> distribution() {
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        distribution.put(5, star5);
+        distribution.put(4, star4);
+        distribution.put(3, star3);
+        distribution.put(2, star2);
+        distribution.put(1, star1);
+        return distribution;
+    }
+}
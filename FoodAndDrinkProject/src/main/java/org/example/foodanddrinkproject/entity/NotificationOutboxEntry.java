@@ -0,0 +1,65 @@
+package org.example.foodanddrinkproject.entity;
+
+import org.example.foodanddrinkproject.enums.NotificationChannel;
+import org.example.foodanddrinkproject.enums.NotificationStatus;
+import org.example.foodanddrinkproject.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification waiting to be delivered, written in the same transaction
+ * as the order change that caused it and sent by NotificationDispatcher.
+ */
+@Entity
+@Table(name = "notification_outbox",
+        indexes = {
+            @Index(name = "idx_notification_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+        })
+@Getter
+@Setter
+public class NotificationOutboxEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private NotificationType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationChannel channel;
+
+    // NotificationPayload as JSON
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationStatus status = NotificationStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Set while a dispatcher is delivering it, used to recover after a crash
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -14,7 +14,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+        indexes = {
+            @Index(name = "idx_orders_status_created_at", columnList = "order_status, created_at"),
+            @Index(name = "idx_orders_created_at", columnList = "created_at"),
+            @Index(name = "idx_orders_user_created_at", columnList = "user_id, created_at")
+        })
 @Getter
 @Setter
 public class Order {
@@ -6,7 +6,10 @@ import lombok.Setter;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items",
+        indexes = {
+            @Index(name = "idx_order_items_order_product", columnList = "order_id, product_id")
+        })
 @Getter
 @Setter
 public class OrderItem {
@@ -11,7 +11,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products",
+        indexes = {
+            @Index(name = "idx_products_active_stock", columnList = "is_active, stock_quantity")
+        })
 @Getter
 @Setter
 public class Product {
@@ -0,0 +1,51 @@
+package org.example.foodanddrinkproject.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.foodanddrinkproject.dto.RatingAggregate;
+
+/**
+ * Running rating aggregates of one product: count, sum and how many ratings
+ * gave each number of stars. Maintained by atomic increments in
+ * ProductRatingStatsRepository whenever a rating is created, changed or
+ * deleted, so nothing ever has to scan the ratings of a product.
+ */
+@Entity
+@Table(name = "product_rating_stats")
+@Getter
+@Setter
+public class ProductRatingStats {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "star_1", nullable = false)
+    private long star1;
+
+    @Column(name = "star_2", nullable = false)
+    private long star2;
+
+    @Column(name = "star_3", nullable = false)
+    private long star3;
+
+    @Column(name = "star_4", nullable = false)
+    private long star4;
+
+    @Column(name = "star_5", nullable = false)
+    private long star5;
+
+    public double getAverage() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : 0.0;
+    }
+
+    public RatingAggregate toAggregate() {
+        return new RatingAggregate(ratingCount, getAverage(), star1, star2, star3, star4, star5);
+    }
+}
@@ -10,6 +10,10 @@ import java.time.LocalDateTime;
 @Table(name = "ratings",
         uniqueConstraints = {
             @UniqueConstraint(columnNames = {"user_id", "product_id"})
+        },
+        indexes = {
+            @Index(name = "idx_ratings_created_at", columnList = "created_at"),
+            @Index(name = "idx_ratings_product_created_at", columnList = "product_id, created_at")
         })
 @Getter
 @Setter
@@ -0,0 +1,37 @@
+package org.example.foodanddrinkproject.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Pending stock change of a hot product, written in the same transaction as
+ * the order that caused it and applied to products.stock_quantity by the
+ * periodic ledger flush. product_id is a plain column on purpose: a foreign
+ * key would take a shared lock on the product row for every insert.
+ */
+@Entity
+@Table(name = "stock_ledger_entries",
+        indexes = {
+            @Index(name = "idx_stock_ledger_entries_product_id", columnList = "product_id")
+        })
+@Getter
+@Setter
+public class StockLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Negative for reservations, positive for releases
+    @Column(nullable = false)
+    private int delta;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
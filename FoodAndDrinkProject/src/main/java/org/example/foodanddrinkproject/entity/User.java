@@ -14,7 +14,10 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users",
+        indexes = {
+            @Index(name = "idx_users_created_at", columnList = "created_at")
+        })
 @Getter
 @Setter
 public class User {
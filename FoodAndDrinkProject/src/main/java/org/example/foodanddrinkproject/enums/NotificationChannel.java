@@ -0,0 +1,5 @@
+package org.example.foodanddrinkproject.enums;
+
+public enum NotificationChannel {
+    EMAIL, CHATWORK
+}
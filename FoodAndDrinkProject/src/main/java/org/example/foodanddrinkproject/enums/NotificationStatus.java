@@ -0,0 +1,5 @@
+package org.example.foodanddrinkproject.enums;
+
+public enum NotificationStatus {
+    PENDING, SENDING, SENT, FAILED
+}
@@ -0,0 +1,25 @@
+package org.example.foodanddrinkproject.enums;
+
+public enum NotificationType {
+    ORDER_CONFIRMATION(NotificationChannel.EMAIL, false),
+    ORDER_STATUS_UPDATE(NotificationChannel.EMAIL, false),
+    ADMIN_ORDER_ALERT(NotificationChannel.EMAIL, true),
+    CHATWORK_ORDER(NotificationChannel.CHATWORK, true);
+
+    private final NotificationChannel channel;
+    // Held back to the end of a time window and sent as one digest
+    private final boolean coalesced;
+
+    NotificationType(NotificationChannel channel, boolean coalesced) {
+        this.channel = channel;
+        this.coalesced = coalesced;
+    }
+
+    public NotificationChannel getChannel() {
+        return channel;
+    }
+
+    public boolean isCoalesced() {
+        return coalesced;
+    }
+}
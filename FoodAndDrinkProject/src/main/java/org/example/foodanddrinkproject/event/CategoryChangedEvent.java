@@ -0,0 +1,16 @@
+package org.example.foodanddrinkproject.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import lombok.Getter;
+
+@Getter
+public class CategoryChangedEvent extends ApplicationEvent {
+
+    private final Integer categoryId;
+
+    public CategoryChangedEvent(Object source, Integer categoryId) {
+        super(source);
+        this.categoryId = categoryId;
+    }
+}
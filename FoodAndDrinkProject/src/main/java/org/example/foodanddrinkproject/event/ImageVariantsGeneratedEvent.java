@@ -0,0 +1,24 @@
+package org.example.foodanddrinkproject.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published once the variants of an uploaded image exist, which changes the
+ * thumbnail, card and detail URLs of the products showing that image.
+ */
+@Getter
+public class ImageVariantsGeneratedEvent extends ApplicationEvent {
+
+    private final String originalUrl;
+    private final List<Long> productIds;
+
+    public ImageVariantsGeneratedEvent(Object source, String originalUrl, List<Long> productIds) {
+        super(source);
+        this.originalUrl = originalUrl;
+        this.productIds = productIds;
+    }
+}
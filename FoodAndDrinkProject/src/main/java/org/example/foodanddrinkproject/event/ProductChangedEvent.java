@@ -0,0 +1,32 @@
+package org.example.foodanddrinkproject.event;
+
+import org.example.foodanddrinkproject.dto.ProductDto;
+import org.springframework.context.ApplicationEvent;
+
+import lombok.Getter;
+
+@Getter
+public class ProductChangedEvent extends ApplicationEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        // Only stock quantity changed (orders placed or cancelled)
+        STOCK,
+        // Only the average rating changed
+        RATING
+    }
+
+    private final Long productId;
+    private final ChangeType changeType;
+    // Only set for CREATED and UPDATED
+    private final transient ProductDto productDto;
+
+    public ProductChangedEvent(Object source, Long productId, ChangeType changeType, ProductDto productDto) {
+        super(source);
+        this.productId = productId;
+        this.changeType = changeType;
+        this.productDto = productDto;
+    }
+}
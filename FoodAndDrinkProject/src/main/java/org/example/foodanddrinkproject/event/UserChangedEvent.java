@@ -0,0 +1,20 @@
+package org.example.foodanddrinkproject.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import lombok.Getter;
+
+/**
+ * Published when data carried by the user's security principal changes
+ * (enabled flag, roles, password, name).
+ */
+@Getter
+public class UserChangedEvent extends ApplicationEvent {
+
+    private final Long userId;
+
+    public UserChangedEvent(Object source, Long userId) {
+        super(source);
+        this.userId = userId;
+    }
+}
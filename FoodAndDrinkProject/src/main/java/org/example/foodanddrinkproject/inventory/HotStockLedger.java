@@ -0,0 +1,285 @@
+package org.example.foodanddrinkproject.inventory;
+
+import jakarta.annotation.PreDestroy;
+import org.example.foodanddrinkproject.dto.ProductDto;
+import org.example.foodanddrinkproject.entity.Product;
+import org.example.foodanddrinkproject.entity.StockLedgerEntry;
+import org.example.foodanddrinkproject.event.ProductChangedEvent;
+import org.example.foodanddrinkproject.exception.BadRequestException;
+import org.example.foodanddrinkproject.exception.ResourceNotFoundException;
+import org.example.foodanddrinkproject.repository.ProductRepository;
+import org.example.foodanddrinkproject.repository.StockLedgerEntryRepository;
+import org.example.foodanddrinkproject.util.InstanceLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional stock ledger for hot products (app.stock.ledger.enabled and
+ * app.stock.ledger.hot-product-ids). Checkout takes stock from an in-memory
+ * counter with a compare-and-set instead of locking the product row, and
+ * records the change as a StockLedgerEntry in the order's transaction.
+ * StockLedgerFlushScheduler periodically applies the journal to
+ * products.stock_quantity in batches.
+ *
+ * The journal is the durable state: at startup any entries left by a
+ * previous run are applied before the counters are loaded from the products
+ * table, so a crash between checkout and flush loses nothing.
+ *
+ * The counters live in this JVM, so the ledger only works with a single
+ * application instance: a second one would sell the same stock again. An
+ * enabled ledger holds a MySQL named lock for its whole lifetime and refuses
+ * to start when another instance already holds it.
+ */
+@Component
+public class HotStockLedger implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotStockLedger.class);
+    private static final String INSTANCE_LOCK_NAME = "food_and_drink.stock_ledger";
+
+    private final boolean enabled;
+    private final Set<Long> hotProductIds;
+    private final int flushBatchSize;
+    private final ProductRepository productRepository;
+    private final StockLedgerEntryRepository entryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+
+    // Holds the single-instance lock while the ledger is enabled
+    private InstanceLock instanceLock;
+
+    // productId -> quantity available for checkout (products.stock_quantity + pending entries)
+    private final Map<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    public HotStockLedger(@Value("${app.stock.ledger.enabled:false}") boolean enabled,
+                          @Value("${app.stock.ledger.hot-product-ids:}") Set<Long> hotProductIds,
+                          @Value("${app.stock.ledger.flush-batch-size:500}") int flushBatchSize,
+                          ProductRepository productRepository,
+                          StockLedgerEntryRepository entryRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager,
+                          DataSource dataSource) {
+        this.enabled = enabled;
+        this.hotProductIds = hotProductIds;
+        this.flushBatchSize = flushBatchSize;
+        this.productRepository = productRepository;
+        this.entryRepository = entryRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Runs before the web server starts taking requests, so no checkout can
+     * use the locking path for a hot product once the counters exist.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Entries of a previous run are applied even if the ledger is now disabled
+        int flushed = flushAll();
+        if (flushed > 0) {
+            logger.info("Applied {} pending stock ledger entries from the previous run", flushed);
+        }
+        if (!enabled || hotProductIds.isEmpty()) {
+            return;
+        }
+        acquireInstanceLock();
+        for (Product product : productRepository.findAllById(hotProductIds)) {
+            available.put(product.getId(), new AtomicInteger(product.getStockQuantity()));
+        }
+        ready = true;
+        logger.info("Stock ledger enabled for products {}", available.keySet());
+    }
+
+    private void acquireInstanceLock() {
+        try {
+            instanceLock = InstanceLock.tryAcquire(dataSource, INSTANCE_LOCK_NAME);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not take the stock ledger instance lock", e);
+        }
+        if (instanceLock == null) {
+            throw new IllegalStateException("The stock ledger is already enabled on another instance; " +
+                    "it only supports a single instance, disable app.stock.ledger.enabled here");
+        }
+    }
+
+    @PreDestroy
+    void releaseInstanceLock() {
+        if (instanceLock == null) {
+            return;
+        }
+        try {
+            instanceLock.release();
+        } catch (SQLException e) {
+            logger.warn("Could not release the stock ledger instance lock", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether checkout for this product goes through the ledger instead of
+     * the row lock.
+     */
+    public boolean isManaged(Long productId) {
+        return ready && available.containsKey(productId);
+    }
+
+    /**
+     * Takes stock of a managed product. Must run inside the order's
+     * transaction: the journal entry commits with the order, and the counter
+     * is given back if the transaction rolls back.
+     */
+    public void reserve(Product product, int quantity) {
+        AtomicInteger counter = available.get(product.getId());
+        if (counter == null) {
+            // Removed by a concurrent delete after isManaged() was checked
+            throw new ResourceNotFoundException("Product", "id", product.getId());
+        }
+        int current;
+        do {
+            current = counter.get();
+            if (current < quantity) {
+                throw new BadRequestException("Sorry, product '" + product.getName() +
+                        "' is out of stock. Available: " + current);
+            }
+        } while (!counter.compareAndSet(current, current - quantity));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    counter.addAndGet(quantity);
+                }
+            }
+        });
+        journal(product.getId(), -quantity);
+    }
+
+    /**
+     * Gives stock of a managed product back (order cancelled). The counter is
+     * only raised once the cancellation has committed.
+     */
+    public void release(Long productId, int quantity) {
+        journal(productId, quantity);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                AtomicInteger counter = available.get(productId);
+                if (counter != null) {
+                    counter.addAndGet(quantity);
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies the oldest pending entries to products.stock_quantity in one
+     * transaction and deletes them.
+     *
+     * @return the number of entries applied
+     */
+    public int flushBatch() {
+        Integer applied = transactionTemplate.execute(status -> {
+            List<StockLedgerEntry> entries = entryRepository.findAllByOrderByIdAsc(PageRequest.of(0, flushBatchSize));
+            if (entries.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, Integer> deltas = new TreeMap<>();
+            for (StockLedgerEntry entry : entries) {
+                deltas.merge(entry.getProductId(), entry.getDelta(), Integer::sum);
+            }
+            // Entries of products deleted since are simply dropped
+            for (Product product : productRepository.findAllByIdInWithLock(deltas.keySet())) {
+                product.setStockQuantity(product.getStockQuantity() + deltas.get(product.getId()));
+                eventPublisher.publishEvent(new ProductChangedEvent(
+                        this, product.getId(), ProductChangedEvent.ChangeType.STOCK, null));
+            }
+            entryRepository.deleteAllByIdInBatch(entries.stream().map(StockLedgerEntry::getId).toList());
+            return entries.size();
+        });
+        return applied != null ? applied : 0;
+    }
+
+    public int flushAll() {
+        int total = 0;
+        int applied;
+        do {
+            applied = flushBatch();
+            total += applied;
+        } while (applied == flushBatchSize);
+        return total;
+    }
+
+    /**
+     * An admin edit of products.stock_quantity, made while holding the row
+     * lock (so no flush ran in between). Applied to the counter as a delta
+     * after commit: overwriting it would erase reservations taken by
+     * checkouts that have not committed yet.
+     */
+    public void stockSet(Long productId, int oldStock, int newStock) {
+        int delta = newStock - oldStock;
+        if (delta == 0) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                AtomicInteger counter = available.get(productId);
+                if (counter != null) {
+                    counter.addAndGet(delta);
+                }
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!ready || !hotProductIds.contains(event.getProductId())) {
+            return;
+        }
+        switch (event.getChangeType()) {
+            case CREATED -> {
+                // Nothing can have been reserved before the product existed
+                ProductDto product = event.getProductDto();
+                long pending = entryRepository.sumDeltaByProductId(event.getProductId());
+                available.putIfAbsent(event.getProductId(),
+                        new AtomicInteger(Math.toIntExact(product.getStockQuantity() + pending)));
+            }
+            case DELETED -> available.remove(event.getProductId());
+            default -> {
+                // Stock edits arrive through stockSet(); flushes and rating changes do not move the counter
+            }
+        }
+    }
+
+    private void journal(Long productId, int delta) {
+        StockLedgerEntry entry = new StockLedgerEntry();
+        entry.setProductId(productId);
+        entry.setDelta(delta);
+        entryRepository.save(entry);
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.foodanddrinkproject.inventory;
+
+import org.example.foodanddrinkproject.entity.Product;
+import org.example.foodanddrinkproject.event.ProductChangedEvent;
+import org.example.foodanddrinkproject.exception.BadRequestException;
+import org.example.foodanddrinkproject.exception.ResourceNotFoundException;
+import org.example.foodanddrinkproject.repository.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Reserves and releases product stock for a whole order at once.
+ * All rows are locked with a single id-ordered SELECT ... FOR UPDATE and the
+ * new quantities are written back by Hibernate as one batched, id-ordered
+ * flush at commit (see JpaConfig), so two orders sharing products can no
+ * longer deadlock on the order in which cart lines happen to be iterated.
+ */
+@Component
+public class StockReservation {
+
+    private final ProductRepository productRepository;
+    private final HotStockLedger stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public StockReservation(ProductRepository productRepository,
+                            HotStockLedger stockLedger,
+                            ApplicationEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.stockLedger = stockLedger;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Takes the given quantities (productId -> quantity) out of stock.
+     * Fails without changing anything if a product is missing or short.
+     * Products managed by the HotStockLedger are taken from the ledger
+     * instead of being locked.
+     *
+     * @return the products by id
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Product> reserve(Map<Long, Integer> quantities) {
+        Map<Long, Integer> lockedQuantities = new HashMap<>();
+        Map<Long, Integer> ledgerQuantities = new HashMap<>();
+        quantities.forEach((productId, quantity) ->
+                (stockLedger.isManaged(productId) ? ledgerQuantities : lockedQuantities).put(productId, quantity));
+
+        Map<Long, Product> products = lockAll(lockedQuantities);
+        for (Map.Entry<Long, Integer> entry : lockedQuantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product.getStockQuantity() < entry.getValue()) {
+                throw new BadRequestException("Sorry, product '" + product.getName() +
+                        "' is out of stock. Available: " + product.getStockQuantity());
+            }
+        }
+
+        if (!ledgerQuantities.isEmpty()) {
+            for (Product product : productRepository.findAllById(ledgerQuantities.keySet())) {
+                products.put(product.getId(), product);
+            }
+            for (Map.Entry<Long, Integer> entry : ledgerQuantities.entrySet()) {
+                Product product = products.get(entry.getKey());
+                if (product == null) {
+                    throw new ResourceNotFoundException("Product", "id", entry.getKey());
+                }
+                // Counters taken here are given back by the ledger if the order rolls back
+                stockLedger.reserve(product, entry.getValue());
+            }
+        }
+
+        for (Map.Entry<Long, Integer> entry : lockedQuantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            product.setStockQuantity(product.getStockQuantity() - entry.getValue());
+            publishStockChanged(product.getId());
+        }
+        return products;
+    }
+
+    /**
+     * Puts the given quantities (productId -> quantity) back into stock,
+     * e.g. when an order is cancelled. Products deleted since are skipped.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Map<Long, Integer> quantities) {
+        Map<Long, Integer> lockedQuantities = new HashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (stockLedger.isManaged(productId)) {
+                stockLedger.release(productId, quantity);
+            } else {
+                lockedQuantities.put(productId, quantity);
+            }
+        });
+        if (lockedQuantities.isEmpty()) {
+            return;
+        }
+        for (Product product : productRepository.findAllByIdInWithLock(new TreeSet<>(lockedQuantities.keySet()))) {
+            product.setStockQuantity(product.getStockQuantity() + lockedQuantities.get(product.getId()));
+            publishStockChanged(product.getId());
+        }
+    }
+
+    private Map<Long, Product> lockAll(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return new HashMap<>();
+        }
+        List<Product> locked = productRepository.findAllByIdInWithLock(new TreeSet<>(quantities.keySet()));
+
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : locked) {
+            products.put(product.getId(), product);
+        }
+        for (Long productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+        }
+        return products;
+    }
+
+    private void publishStockChanged(Long productId) {
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                this, productId, ProductChangedEvent.ChangeType.STOCK, null));
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.foodanddrinkproject.media;
+
+/**
+ * Image formats accepted for upload, recognised by their leading magic
+ * bytes rather than the client-supplied content type or file name.
+ */
+public enum ImageType {
+    JPEG(".jpg"),
+    PNG(".png"),
+    GIF(".gif"),
+    WEBP(".webp"),
+    BMP(".bmp");
+
+    // Enough leading bytes to tell every supported format apart
+    public static final int HEADER_LENGTH = 12;
+
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] GIF87_MAGIC = {'G', 'I', 'F', '8', '7', 'a'};
+    private static final byte[] GIF89_MAGIC = {'G', 'I', 'F', '8', '9', 'a'};
+    private static final byte[] RIFF_MAGIC = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP_MAGIC = {'W', 'E', 'B', 'P'};
+    private static final byte[] BMP_MAGIC = {'B', 'M'};
+
+    private final String extension;
+
+    ImageType(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @return the format of the file starting with header[0..length), or
+     *         null if it is not a supported image
+     */
+    public static ImageType sniff(byte[] header, int length) {
+        if (startsWith(header, length, 0, JPEG_MAGIC)) {
+            return JPEG;
+        }
+        if (startsWith(header, length, 0, PNG_MAGIC)) {
+            return PNG;
+        }
+        if (startsWith(header, length, 0, GIF87_MAGIC) || startsWith(header, length, 0, GIF89_MAGIC)) {
+            return GIF;
+        }
+        if (startsWith(header, length, 0, RIFF_MAGIC) && startsWith(header, length, 8, WEBP_MAGIC)) {
+            return WEBP;
+        }
+        if (startsWith(header, length, 0, BMP_MAGIC)) {
+            return BMP;
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, byte[] magic) {
+        if (length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[offset + i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
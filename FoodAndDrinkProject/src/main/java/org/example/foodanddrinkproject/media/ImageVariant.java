@@ -0,0 +1,39 @@
+package org.example.foodanddrinkproject.media;
+
+/**
+ * Resized copies of an uploaded image. Each is stored next to the original
+ * as "name-suffix.ext" and fits within size x size pixels.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumb", 160),
+    CARD("card", 480),
+    DETAIL("detail", 1200);
+
+    private final String suffix;
+    private final int size;
+
+    ImageVariant(String suffix, int size) {
+        this.suffix = suffix;
+        this.size = size;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * "/uploads/products/abc.jpg" -> "/uploads/products/abc-thumb.jpg"
+     */
+    public String pathFor(String original) {
+        int dot = original.lastIndexOf('.');
+        int slash = original.lastIndexOf('/');
+        if (dot <= slash) {
+            return original + "-" + suffix;
+        }
+        return original.substring(0, dot) + "-" + suffix + original.substring(dot);
+    }
+}
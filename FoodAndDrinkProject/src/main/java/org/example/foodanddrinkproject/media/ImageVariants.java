@@ -0,0 +1,271 @@
+package org.example.foodanddrinkproject.media;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.foodanddrinkproject.cache.BoundedCache;
+import org.example.foodanddrinkproject.event.ImageVariantsGeneratedEvent;
+import org.example.foodanddrinkproject.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Builds the ImageVariant copies of uploaded images on the image executor,
+ * using only ImageIO and Java2D, and resolves variant URLs for DTOs.
+ *
+ * A variant URL falls back to the original while the variant is still being
+ * generated, when the original is already smaller than the variant, or for
+ * images that are not local uploads. Lookups are cached briefly so listing
+ * pages do not stat the file system for every image.
+ *
+ * Dimensions are read from the header before decoding: images over the
+ * pixel budget get no variants, and large originals are decoded subsampled
+ * so the full-resolution raster is never held in memory.
+ */
+@Component
+public class ImageVariants {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariants.class);
+    private static final String URL_PREFIX = "/uploads/";
+    private static final float JPEG_QUALITY = 0.85f;
+    // Subsampled decodes keep at least this many times the largest variant, so resize() still has detail to halve
+    private static final int DECODE_OVERSAMPLING = 2;
+
+    private final Path root;
+    private final Executor executor;
+    private final BoundedCache<String, Boolean> existing;
+    private final Timer generateTimer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductRepository productRepository;
+    private final long maxPixels;
+
+    public ImageVariants(@Value("${app.upload.dir:uploads}") String uploadDir,
+                         @Value("${app.upload.variants.max-pixels:40000000}") long maxPixels,
+                         @Qualifier("imageExecutor") Executor executor,
+                         MeterRegistry meterRegistry,
+                         ApplicationEventPublisher eventPublisher,
+                         ProductRepository productRepository) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.maxPixels = maxPixels;
+        this.executor = executor;
+        this.eventPublisher = eventPublisher;
+        this.productRepository = productRepository;
+        this.existing = new BoundedCache<>(10_000, Duration.ofSeconds(60));
+        this.generateTimer = Timer.builder("media.variants.generate")
+                .description("Time to build all variants of one uploaded image")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the URL of the variant, or the original URL if there is none.
+     */
+    public String url(String originalUrl, ImageVariant variant) {
+        if (originalUrl == null || !originalUrl.startsWith(URL_PREFIX)) {
+            return originalUrl;
+        }
+        String variantUrl = variant.pathFor(originalUrl);
+        Path file = toFile(variantUrl);
+        if (file == null) {
+            return originalUrl;
+        }
+        return existing.get(variantUrl, key -> Files.isRegularFile(file)) ? variantUrl : originalUrl;
+    }
+
+    /**
+     * Queues variant generation for a freshly stored upload.
+     */
+    public void generateLater(String originalUrl) {
+        Path original = originalUrl != null && originalUrl.startsWith(URL_PREFIX) ? toFile(originalUrl) : null;
+        if (original == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> generateTimer.record(() -> generate(originalUrl, original)));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Image queue full, {} is served without variants", originalUrl);
+        }
+    }
+
+    private void generate(String originalUrl, Path original) {
+        String format = format(original);
+        try {
+            if (format == null) {
+                logger.warn("No ImageIO support for {}, variants skipped", originalUrl);
+                return;
+            }
+            Decoded decoded = read(originalUrl, original);
+            if (decoded == null) {
+                return;
+            }
+            BufferedImage image = decoded.image();
+            for (ImageVariant variant : ImageVariant.values()) {
+                if (decoded.longestSide() <= variant.getSize()) {
+                    // The original is small enough; url() falls back to it
+                    continue;
+                }
+                double scale = (double) variant.getSize() / Math.max(image.getWidth(), image.getHeight());
+                BufferedImage resized = resize(image,
+                        Math.max(1, (int) Math.round(image.getWidth() * scale)),
+                        Math.max(1, (int) Math.round(image.getHeight() * scale)),
+                        format);
+                String variantUrl = variant.pathFor(originalUrl);
+                write(resized, format, toFile(variantUrl));
+                existing.put(variantUrl, Boolean.TRUE);
+            }
+            logger.info("Image variants generated for {}", originalUrl);
+            List<Long> productIds = productRepository.findIdsByImageUrl(originalUrl);
+            if (!productIds.isEmpty()) {
+                productRepository.touchByImageUrl(originalUrl);
+                eventPublisher.publishEvent(new ImageVariantsGeneratedEvent(this, originalUrl, productIds));
+            }
+        } catch (Exception e) {
+            logger.error("Failed to generate image variants for {}", originalUrl, e);
+        }
+    }
+
+    /**
+     * Reads the dimensions from the image header, then decodes with source
+     * subsampling when the original is much larger than the largest variant.
+     * Returns null for unreadable images and images over the pixel budget.
+     */
+    private Decoded read(String originalUrl, Path original) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                logger.warn("No ImageIO support for {}, variants skipped", originalUrl);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    logger.warn("{} is {}x{}, over the {} pixel budget; variants skipped",
+                            originalUrl, width, height, maxPixels);
+                    return null;
+                }
+                int longest = Math.max(width, height);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = longest / (largestVariantSize() * DECODE_OVERSAMPLING);
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return new Decoded(reader.read(0, param), longest);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static int largestVariantSize() {
+        int largest = 0;
+        for (ImageVariant variant : ImageVariant.values()) {
+            largest = Math.max(largest, variant.getSize());
+        }
+        return largest;
+    }
+
+    /**
+     * Halves the image with bilinear filtering until one more step would
+     * undershoot, then draws the final size. Much sharper than a single
+     * bilinear step for large reductions, and far cheaper than bicubic.
+     */
+    private static BufferedImage resize(BufferedImage source, int width, int height, String format) {
+        int type = "jpeg".equals(format) || source.getTransparency() == BufferedImage.OPAQUE
+                ? BufferedImage.TYPE_INT_RGB
+                : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage step = new BufferedImage(w, h, type);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    // Written to a temporary file and moved into place, so a variant is never served half-written
+    private static void write(BufferedImage image, String format, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+        try {
+            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+            ImageWriter writer = writers.next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if ("jpeg".equals(format)) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(JPEG_QUALITY);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Variants keep the original's extension, so only formats ImageIO can also write qualify
+    private static String format(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        String extension = name.substring(dot + 1).toLowerCase(Locale.ROOT);
+        String format = switch (extension) {
+            case "jpg", "jpeg" -> "jpeg";
+            case "png", "bmp" -> extension;
+            default -> null;
+        };
+        return format != null && ImageIO.getImageWritersByFormatName(format).hasNext() ? format : null;
+    }
+
+    private Path toFile(String url) {
+        Path file = root.resolve(url.substring(URL_PREFIX.length())).normalize();
+        return file.startsWith(root) ? file : null;
+    }
+
+    // The decoded (possibly subsampled) image and the longest side of the original
+    private record Decoded(BufferedImage image, int longestSide) {
+    }
+}
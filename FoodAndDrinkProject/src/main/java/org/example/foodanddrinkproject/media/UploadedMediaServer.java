@@ -0,0 +1,184 @@
+package org.example.foodanddrinkproject.media;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves files under app.upload.dir. Stored files are named after the hash
+ * of their content and never rewritten, so product images (the only public
+ * uploads) are cacheable by anyone for a year as immutable. Other uploads
+ * need a login, so only the browser may keep them and it revalidates each
+ * use. Either way the strong ETag is derived from size and modification
+ * time.
+ *
+ * Handles If-None-Match / If-Modified-Since (304) and single byte ranges
+ * (206, honouring If-Range). On Tomcat the body is handed to the connector's
+ * sendfile support, so the bytes go from the page cache to the socket
+ * without passing through the JVM; elsewhere it falls back to
+ * FileChannel.transferTo.
+ */
+@Component
+public class UploadedMediaServer {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Upload subdirectory that is served without authentication (see SecurityConfig)
+    private static final String PUBLIC_DIRECTORY = "products";
+
+    private static final String PUBLIC_CACHE_CONTROL =
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+    private static final String PRIVATE_CACHE_CONTROL =
+            CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final Path root;
+    private final Path publicRoot;
+    private final MeterRegistry meterRegistry;
+    private final Counter bytesServed;
+
+    public UploadedMediaServer(@Value("${app.upload.dir:uploads}") String uploadDir, MeterRegistry meterRegistry) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.publicRoot = root.resolve(PUBLIC_DIRECTORY);
+        this.meterRegistry = meterRegistry;
+        this.bytesServed = Counter.builder("media.bytes.served")
+                .description("Body bytes sent for uploaded files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param relativePath path below the upload directory, e.g. "products/uuid.jpg"
+     */
+    public void serve(String relativePath, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file = resolve(relativePath);
+        if (file == null) {
+            count(HttpServletResponse.SC_NOT_FOUND);
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                file.startsWith(publicRoot) ? PUBLIC_CACHE_CONTROL : PRIVATE_CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            count(response.getStatus());
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && length > 0 && ifRangeMatches(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                // A malformed Range header is ignored and the whole file is sent
+                ranges = List.of();
+            }
+            // Several ranges would need a multipart/byteranges body; send the whole file instead
+            if (ranges.size() == 1 && ranges.get(0).getRangeStart(length) >= length) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                count(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString());
+        response.setContentLengthLong(count);
+        count(response.getStatus());
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+        } else {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+                long position = start;
+                long remaining = count;
+                while (remaining > 0) {
+                    long sent = channel.transferTo(position, remaining, out);
+                    if (sent <= 0) {
+                        break;
+                    }
+                    position += sent;
+                    remaining -= sent;
+                }
+            }
+        }
+        bytesServed.increment(count);
+    }
+
+    private Path resolve(String relativePath) {
+        if (relativePath == null || relativePath.isEmpty()) {
+            return null;
+        }
+        Path file = root.resolve(relativePath).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    // A Range request only applies if the client's copy is still the current one
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void count(int status) {
+        meterRegistry.counter("media.requests", "status", String.valueOf(status)).increment();
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.foodanddrinkproject.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends a list of emails over a single SMTP connection. JavaMailSender opens
+ * one transport per send call, so passing the whole list at once pays the
+ * connect, TLS handshake and AUTH once instead of once per message.
+ *
+ * mail.sent / mail.smtp.connections is the connection reuse ratio; the rate
+ * of mail.sent is the throughput.
+ */
+@Component
+public class MailBatchSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailBatchSender.class);
+
+    private final JavaMailSender mailSender;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter connections;
+    private final Timer batchTimer;
+
+    public MailBatchSender(@Autowired(required = false) JavaMailSender mailSender, MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.sent = Counter.builder("mail.sent")
+                .description("Emails accepted by the SMTP server")
+                .register(meterRegistry);
+        this.failed = Counter.builder("mail.failed")
+                .description("Emails the SMTP server did not accept")
+                .register(meterRegistry);
+        this.connections = Counter.builder("mail.smtp.connections")
+                .description("SMTP connections opened, one per batch")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("mail.batch.send")
+                .description("Time to send one batch of emails, connection included")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return mailSender != null;
+    }
+
+    /**
+     * @return the failure of each message that was not sent, by its index in
+     *         messages; empty when everything was sent
+     */
+    public Map<Integer, Exception> send(List<SimpleMailMessage> messages) {
+        if (messages.isEmpty()) {
+            return Map.of();
+        }
+        if (mailSender == null) {
+            logger.info("Email disabled - skipping {} emails", messages.size());
+            return Map.of();
+        }
+
+        Map<Integer, Exception> failures = new HashMap<>();
+        connections.increment();
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // Keyed by the original message objects; match them by identity
+            // because SimpleMailMessage.equals compares content
+            e.getFailedMessages().forEach((message, cause) -> {
+                for (int i = 0; i < messages.size(); i++) {
+                    if (messages.get(i) == message) {
+                        failures.put(i, cause);
+                    }
+                }
+            });
+            if (failures.isEmpty()) {
+                failAll(messages, e, failures);
+            }
+        } catch (MailException e) {
+            failAll(messages, e, failures);
+        } finally {
+            sample.stop(batchTimer);
+        }
+
+        sent.increment(messages.size() - failures.size());
+        failed.increment(failures.size());
+        return failures;
+    }
+
+    private static void failAll(List<SimpleMailMessage> messages, Exception cause, Map<Integer, Exception> failures) {
+        for (int i = 0; i < messages.size(); i++) {
+            failures.put(i, cause);
+        }
+    }
+}
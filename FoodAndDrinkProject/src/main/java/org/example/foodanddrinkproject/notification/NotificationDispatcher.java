@@ -0,0 +1,314 @@
+package org.example.foodanddrinkproject.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.foodanddrinkproject.dto.NotificationPayload;
+import org.example.foodanddrinkproject.dto.OrderDto;
+import org.example.foodanddrinkproject.entity.NotificationOutboxEntry;
+import org.example.foodanddrinkproject.enums.NotificationChannel;
+import org.example.foodanddrinkproject.enums.NotificationStatus;
+import org.example.foodanddrinkproject.enums.NotificationType;
+import org.example.foodanddrinkproject.repository.NotificationOutboxRepository;
+import org.example.foodanddrinkproject.service.ChatworkService;
+import org.example.foodanddrinkproject.service.NotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers outbox notifications. Each batch is claimed (PENDING -> SENDING)
+ * in a short transaction, sent on the notification executor with per-channel
+ * rate limits, and the outcomes are written back in a second transaction.
+ * Failed deliveries are retried with exponential backoff until
+ * app.notification.max-attempts, then left as FAILED for inspection.
+ *
+ * All deliveries of a batch are submitted at once; a semaphore per channel
+ * caps how many SMTP connections or Chatwork calls are in flight, whatever
+ * the executor's thread count. Emails of a batch are sent in groups over one
+ * SMTP connection each, so the email concurrency is also the number of
+ * authenticated SMTP sessions open at any time.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationService notificationService;
+    private final ChatworkService chatworkService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final Map<NotificationChannel, RateLimiter> rateLimiters = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Semaphore> inFlight = new EnumMap<>(NotificationChannel.class);
+
+    private final int batchSize;
+    private final int emailBatchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public NotificationDispatcher(NotificationOutboxRepository outboxRepository,
+                                  NotificationService notificationService,
+                                  ChatworkService chatworkService,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier("notificationExecutor") Executor executor,
+                                  @Value("${app.notification.batch-size:50}") int batchSize,
+                                  @Value("${app.notification.email.batch-size:20}") int emailBatchSize,
+                                  @Value("${app.notification.max-attempts:8}") int maxAttempts,
+                                  @Value("${app.notification.backoff-initial-seconds:30}") long initialBackoffSeconds,
+                                  @Value("${app.notification.backoff-max-seconds:3600}") long maxBackoffSeconds,
+                                  @Value("${app.notification.email.rate-per-second:10}") double emailRate,
+                                  @Value("${app.notification.chatwork.rate-per-second:1}") double chatworkRate,
+                                  @Value("${app.notification.email.max-concurrency:4}") int emailConcurrency,
+                                  @Value("${app.notification.chatwork.max-concurrency:2}") int chatworkConcurrency,
+                                  MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.notificationService = notificationService;
+        this.chatworkService = chatworkService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.emailBatchSize = Math.max(1, emailBatchSize);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        rateLimiters.put(NotificationChannel.EMAIL, new RateLimiter(emailRate));
+        rateLimiters.put(NotificationChannel.CHATWORK, new RateLimiter(chatworkRate));
+        registerChannel(meterRegistry, NotificationChannel.EMAIL, emailConcurrency);
+        registerChannel(meterRegistry, NotificationChannel.CHATWORK, chatworkConcurrency);
+    }
+
+    private void registerChannel(MeterRegistry meterRegistry, NotificationChannel channel, int maxConcurrency) {
+        Semaphore semaphore = new Semaphore(maxConcurrency);
+        inFlight.put(channel, semaphore);
+        Gauge.builder("notification.in.flight", semaphore, s -> maxConcurrency - s.availablePermits())
+                .tag("channel", channel.name().toLowerCase())
+                .description("Notification deliveries currently talking to the channel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends due notifications until the outbox has no full batch left.
+     *
+     * @return the number of notifications attempted
+     */
+    public int dispatchAll() {
+        int total = 0;
+        int attempted;
+        do {
+            attempted = dispatchBatch();
+            total += attempted;
+        } while (attempted == batchSize);
+        return total;
+    }
+
+    public int dispatchBatch() {
+        List<NotificationOutboxEntry> claimed = claim();
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<List<Outcome>>> deliveries = new ArrayList<>();
+        for (List<NotificationOutboxEntry> delivery : groupDeliveries(claimed)) {
+            deliveries.add(CompletableFuture.supplyAsync(() -> deliver(delivery), executor));
+        }
+        List<Outcome> outcomes = deliveries.stream()
+                .flatMap(delivery -> delivery.join().stream())
+                .toList();
+
+        transactionTemplate.executeWithoutResult(status -> record(outcomes));
+        return claimed.size();
+    }
+
+    /**
+     * Puts back entries claimed by a dispatcher that stopped before recording
+     * the outcome, and removes delivered entries older than the retention.
+     */
+    public void housekeeping(Duration claimTimeout, Duration retention) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            int released = outboxRepository.releaseStaleClaims(now.minus(claimTimeout));
+            if (released > 0) {
+                logger.warn("Released {} notifications left in SENDING", released);
+            }
+            outboxRepository.deleteSentBefore(now.minus(retention));
+        });
+    }
+
+    private List<NotificationOutboxEntry> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<NotificationOutboxEntry> due = outboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            for (NotificationOutboxEntry entry : due) {
+                entry.setStatus(NotificationStatus.SENDING);
+                entry.setClaimedAt(now);
+            }
+            return due;
+        });
+    }
+
+    /**
+     * Groups a claimed batch into deliveries: all entries of a coalesced type
+     * go out together as one digest, the remaining emails share an SMTP
+     * connection in groups of app.notification.email.batch-size, and
+     * anything else is sent on its own.
+     */
+    private List<List<NotificationOutboxEntry>> groupDeliveries(List<NotificationOutboxEntry> entries) {
+        List<List<NotificationOutboxEntry>> deliveries = new ArrayList<>();
+        Map<NotificationType, List<NotificationOutboxEntry>> digests = new EnumMap<>(NotificationType.class);
+        List<NotificationOutboxEntry> emails = new ArrayList<>();
+        for (NotificationOutboxEntry entry : entries) {
+            if (entry.getType().isCoalesced()) {
+                digests.computeIfAbsent(entry.getType(), type -> new ArrayList<>()).add(entry);
+            } else if (entry.getChannel() == NotificationChannel.EMAIL) {
+                emails.add(entry);
+            } else {
+                deliveries.add(List.of(entry));
+            }
+        }
+        deliveries.addAll(digests.values());
+        for (int from = 0; from < emails.size(); from += emailBatchSize) {
+            deliveries.add(emails.subList(from, Math.min(from + emailBatchSize, emails.size())));
+        }
+        return deliveries;
+    }
+
+    private List<Outcome> deliver(List<NotificationOutboxEntry> entries) {
+        NotificationOutboxEntry first = entries.get(0);
+        Semaphore semaphore = inFlight.get(first.getChannel());
+        Map<Long, Exception> failures;
+        try {
+            semaphore.acquire();
+            try {
+                failures = send(entries);
+            } finally {
+                semaphore.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures = failAll(entries, e);
+        } catch (Exception e) {
+            failures = failAll(entries, e);
+        }
+        if (!failures.isEmpty()) {
+            logger.warn("Delivery of notifications {} ({}) failed: {}",
+                    failures.keySet(), first.getType(), failures.values().iterator().next().getMessage());
+        }
+
+        List<Outcome> outcomes = new ArrayList<>(entries.size());
+        for (NotificationOutboxEntry entry : entries) {
+            outcomes.add(new Outcome(entry.getId(), failures.get(entry.getId())));
+        }
+        return outcomes;
+    }
+
+    /**
+     * @return the failure of each entry that was not delivered, by entry id
+     */
+    private Map<Long, Exception> send(List<NotificationOutboxEntry> entries) throws Exception {
+        NotificationOutboxEntry first = entries.get(0);
+        RateLimiter rateLimiter = rateLimiters.get(first.getChannel());
+
+        if (first.getType().isCoalesced() && entries.size() > 1) {
+            List<OrderDto> orders = new ArrayList<>(entries.size());
+            for (NotificationOutboxEntry entry : entries) {
+                orders.add(readPayload(entry).getOrder());
+            }
+            rateLimiter.acquire();
+            switch (first.getType()) {
+                case CHATWORK_ORDER -> chatworkService.sendOrderDigest(orders);
+                case ADMIN_ORDER_ALERT -> notificationService.sendAdminDigest(orders);
+                default -> throw new IllegalStateException("No digest for " + first.getType());
+            }
+            return Map.of();
+        }
+
+        if (first.getChannel() == NotificationChannel.EMAIL) {
+            List<SimpleMailMessage> messages = new ArrayList<>(entries.size());
+            for (NotificationOutboxEntry entry : entries) {
+                messages.add(notificationService.buildEmail(entry.getType(), readPayload(entry)));
+            }
+            rateLimiter.acquire(messages.size());
+            Map<Long, Exception> failures = new HashMap<>();
+            notificationService.sendEmails(messages)
+                    .forEach((index, error) -> failures.put(entries.get(index).getId(), error));
+            return failures;
+        }
+
+        rateLimiter.acquire();
+        chatworkService.sendOrderNotification(readPayload(first).getOrder());
+        return Map.of();
+    }
+
+    private static Map<Long, Exception> failAll(List<NotificationOutboxEntry> entries, Exception error) {
+        Map<Long, Exception> failures = new HashMap<>();
+        for (NotificationOutboxEntry entry : entries) {
+            failures.put(entry.getId(), error);
+        }
+        return failures;
+    }
+
+    private NotificationPayload readPayload(NotificationOutboxEntry entry) throws Exception {
+        return objectMapper.readValue(entry.getPayload(), NotificationPayload.class);
+    }
+
+    private void record(List<Outcome> outcomes) {
+        Map<Long, Outcome> byId = outcomes.stream().collect(Collectors.toMap(Outcome::entryId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        for (NotificationOutboxEntry entry : outboxRepository.findAllById(byId.keySet())) {
+            Outcome outcome = byId.get(entry.getId());
+            entry.setClaimedAt(null);
+            entry.setAttempts(entry.getAttempts() + 1);
+            if (outcome.error() == null) {
+                entry.setStatus(NotificationStatus.SENT);
+                entry.setSentAt(now);
+                entry.setLastError(null);
+            } else if (entry.getAttempts() >= maxAttempts) {
+                entry.setStatus(NotificationStatus.FAILED);
+                entry.setLastError(truncate(outcome.error().toString()));
+                logger.error("Giving up on notification {} ({}) after {} attempts",
+                        entry.getId(), entry.getType(), entry.getAttempts());
+            } else {
+                entry.setStatus(NotificationStatus.PENDING);
+                entry.setNextAttemptAt(now.plus(backoff(entry.getAttempts())));
+                entry.setLastError(truncate(outcome.error().toString()));
+            }
+        }
+    }
+
+    // 30s, 1m, 2m, 4m, ... capped at maxBackoff
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private record Outcome(Long entryId, Exception error) {
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.foodanddrinkproject.notification;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.foodanddrinkproject.dto.NotificationPayload;
+import org.example.foodanddrinkproject.entity.NotificationOutboxEntry;
+import org.example.foodanddrinkproject.enums.NotificationType;
+import org.example.foodanddrinkproject.repository.NotificationOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Adds notifications to the outbox. Called inside the business transaction,
+ * so a notification exists if and only if the change that caused it commits.
+ *
+ * Coalesced types become due only at the end of the current
+ * app.notification.digest-window-seconds window, so everything queued in
+ * the same window is claimed together and sent as a single digest.
+ */
+@Component
+public class NotificationOutboxWriter {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final long digestWindowSeconds;
+
+    public NotificationOutboxWriter(NotificationOutboxRepository outboxRepository, ObjectMapper objectMapper,
+                                    @Value("${app.notification.digest-window-seconds:60}") long digestWindowSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.digestWindowSeconds = digestWindowSeconds;
+    }
+
+    public void enqueue(NotificationType type, NotificationPayload payload) {
+        NotificationOutboxEntry entry = new NotificationOutboxEntry();
+        entry.setType(type);
+        entry.setChannel(type.getChannel());
+        entry.setPayload(toJson(payload));
+        entry.setNextAttemptAt(type.isCoalesced() ? endOfWindow(LocalDateTime.now()) : LocalDateTime.now());
+        outboxRepository.save(entry);
+    }
+
+    private LocalDateTime endOfWindow(LocalDateTime now) {
+        if (digestWindowSeconds <= 0) {
+            return now;
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        long epochSecond = now.atZone(zone).toEpochSecond();
+        long windowEnd = (epochSecond / digestWindowSeconds + 1) * digestWindowSeconds;
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(windowEnd), zone);
+    }
+
+    private String toJson(NotificationPayload payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize notification payload", e);
+        }
+    }
+}
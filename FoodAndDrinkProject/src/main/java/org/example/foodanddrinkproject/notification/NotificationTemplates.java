@@ -0,0 +1,139 @@
+package org.example.foodanddrinkproject.notification;
+
+import jakarta.annotation.PostConstruct;
+import org.example.foodanddrinkproject.dto.DashboardStatsDto;
+import org.example.foodanddrinkproject.dto.OrderDto;
+import org.example.foodanddrinkproject.dto.OrderItemDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.AbstractConfigurableTemplateResolver;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders notification bodies from Thymeleaf TEXT templates, with an engine
+ * of its own so the web view settings do not apply. Templates ship under
+ * classpath:templates/notification/; a file of the same name in
+ * app.notification.templates.dir takes precedence, which lets the wording
+ * change without a redeploy.
+ *
+ * Every template is parsed once at startup and kept in the engine's cache.
+ * With an override directory configured the cache entries expire after
+ * app.notification.templates.reload-seconds, so edited files are picked up.
+ */
+@Component
+public class NotificationTemplates {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationTemplates.class);
+
+    public static final String ORDER_CONFIRMATION = "order-confirmation";
+    public static final String ORDER_STATUS_UPDATE = "order-status-update";
+    public static final String ADMIN_ORDER_ALERT = "admin-order-alert";
+    public static final String ADMIN_ORDER_DIGEST = "admin-order-digest";
+    public static final String CHATWORK_ORDER = "chatwork-order";
+    public static final String CHATWORK_ORDER_DIGEST = "chatwork-order-digest";
+    public static final String CHATWORK_MONTHLY_STATISTICS = "chatwork-monthly-statistics";
+
+    private static final List<String> TEMPLATES = List.of(
+            ORDER_CONFIRMATION, ORDER_STATUS_UPDATE, ADMIN_ORDER_ALERT, ADMIN_ORDER_DIGEST,
+            CHATWORK_ORDER, CHATWORK_ORDER_DIGEST, CHATWORK_MONTHLY_STATISTICS);
+
+    private final SpringTemplateEngine engine = new SpringTemplateEngine();
+
+    public NotificationTemplates(@Value("${app.notification.templates.dir:}") String overrideDir,
+                                 @Value("${app.notification.templates.reload-seconds:60}") long reloadSeconds) {
+        Long cacheTtlMs = StringUtils.hasText(overrideDir) ? reloadSeconds * 1000 : null;
+        // Expressions are compiled to bytecode once they have been evaluated a few times
+        engine.setEnableSpringELCompiler(true);
+
+        if (StringUtils.hasText(overrideDir)) {
+            FileTemplateResolver overrides = new FileTemplateResolver();
+            configure(overrides, overrideDir.endsWith("/") ? overrideDir : overrideDir + "/", cacheTtlMs);
+            overrides.setCheckExistence(true);
+            overrides.setOrder(1);
+            engine.addTemplateResolver(overrides);
+        }
+
+        ClassLoaderTemplateResolver bundled = new ClassLoaderTemplateResolver();
+        configure(bundled, "templates/notification/", cacheTtlMs);
+        bundled.setOrder(2);
+        engine.addTemplateResolver(bundled);
+    }
+
+    private static void configure(AbstractConfigurableTemplateResolver resolver, String prefix, Long cacheTtlMs) {
+        resolver.setPrefix(prefix);
+        resolver.setSuffix(".txt");
+        resolver.setTemplateMode(TemplateMode.TEXT);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(true);
+        resolver.setCacheTTLMs(cacheTtlMs);
+    }
+
+    public String render(String template, Map<String, Object> variables) {
+        StringWriter out = new StringWriter(512);
+        engine.process(template, new Context(Locale.ROOT, variables), out);
+        return out.toString();
+    }
+
+    /**
+     * Parses every template against sample data, so that the first real
+     * message does not pay for parsing and a broken override shows up in the
+     * startup log rather than in the outbox.
+     */
+    @PostConstruct
+    void precompile() {
+        Map<String, Object> sample = sampleVariables();
+        for (String template : TEMPLATES) {
+            try {
+                render(template, sample);
+            } catch (Exception e) {
+                logger.error("Notification template '{}' failed to render: {}", template, e.getMessage());
+            }
+        }
+        logger.info("Precompiled {} notification templates", TEMPLATES.size());
+    }
+
+    private static Map<String, Object> sampleVariables() {
+        OrderItemDto item = new OrderItemDto();
+        item.setProductName("Sample");
+        item.setQuantity(1);
+        item.setPriceAtPurchase(BigDecimal.ONE);
+
+        OrderDto order = new OrderDto();
+        order.setId(0L);
+        order.setOrderDate(LocalDateTime.now());
+        order.setUpdatedAt(LocalDateTime.now());
+        order.setItems(List.of(item));
+
+        DashboardStatsDto stats = new DashboardStatsDto();
+        stats.setTotalRevenue(BigDecimal.ZERO);
+        stats.setTopProducts(List.of());
+        stats.setTopCustomers(List.of());
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("order", order);
+        variables.put("orders", List.of(order));
+        variables.put("oldStatus", "PENDING");
+        variables.put("newStatus", "SHIPPED");
+        variables.put("total", BigDecimal.ZERO);
+        variables.put("more", 0);
+        variables.put("stats", stats);
+        variables.put("generatedAt", LocalDateTime.now());
+        return variables;
+    }
+}
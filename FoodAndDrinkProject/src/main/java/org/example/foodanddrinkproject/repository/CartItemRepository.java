@@ -1,11 +1,25 @@
 package org.example.foodanddrinkproject.repository;
 
+import org.example.foodanddrinkproject.dto.CartLineView;
 import org.example.foodanddrinkproject.entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
-}
\ No newline at end of file
+
+    // Cart read model: all lines with their pricing columns in one query
+    @Query("SELECT new org.example.foodanddrinkproject.dto.CartLineView(" +
+           "p.id, p.name, p.imageUrl, p.price, p.discountPrice, ci.quantity) " +
+           "FROM CartItem ci " +
+           "JOIN ci.product p " +
+           "WHERE ci.cart.id = :cartId " +
+           "ORDER BY ci.id")
+    List<CartLineView> findLinesByCartId(@Param("cartId") Long cartId);
+}
@@ -2,8 +2,15 @@ package org.example.foodanddrinkproject.repository;
 
 import org.example.foodanddrinkproject.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
+
+    // Seeds the category version used for HTTP validators
+    @Query("SELECT MAX(c.updatedAt) FROM Category c")
+    LocalDateTime findMaxUpdatedAt();
 }
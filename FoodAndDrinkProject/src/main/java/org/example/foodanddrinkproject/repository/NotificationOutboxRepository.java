@@ -0,0 +1,43 @@
+package org.example.foodanddrinkproject.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.example.foodanddrinkproject.entity.NotificationOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, Long> {
+    // Due entries, oldest first. Rows locked by another dispatcher instance
+    // are skipped (lock timeout -2 = SKIP LOCKED) instead of waited for.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM NotificationOutboxEntry n " +
+           "WHERE n.status = org.example.foodanddrinkproject.enums.NotificationStatus.PENDING " +
+           "AND n.nextAttemptAt <= :now " +
+           "ORDER BY n.id")
+    List<NotificationOutboxEntry> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Entries left in SENDING by a dispatcher that died mid-delivery
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntry n " +
+           "SET n.status = org.example.foodanddrinkproject.enums.NotificationStatus.PENDING, n.claimedAt = null " +
+           "WHERE n.status = org.example.foodanddrinkproject.enums.NotificationStatus.SENDING " +
+           "AND n.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxEntry n " +
+           "WHERE n.status = org.example.foodanddrinkproject.enums.NotificationStatus.SENT " +
+           "AND n.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,101 +1,125 @@
 package org.example.foodanddrinkproject.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.foodanddrinkproject.dto.OrderSummaryDto;
 import org.example.foodanddrinkproject.entity.Order;
 import org.example.foodanddrinkproject.enums.OrderStatus;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
-    List<Order> findByUserIdOrderByCreatedAtDesc(Long userId);
+    // Order read path: users, items and products in a constant number of queries
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Order> findAll(Specification<Order> spec, Pageable pageable);
+
+    // Initializes items (and their products) for orders already loaded in the session
+    @Query("SELECT DISTINCT o FROM Order o " +
+           "LEFT JOIN FETCH o.items i " +
+           "LEFT JOIN FETCH i.product " +
+           "WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT o FROM Order o " +
+           "JOIN FETCH o.user " +
+           "LEFT JOIN FETCH o.items i " +
+           "LEFT JOIN FETCH i.product " +
+           "WHERE o.user.id = :userId " +
+           "ORDER BY o.createdAt DESC")
+    List<Order> findWithDetailsByUserId(@Param("userId") Long userId);
+
+    // Order history without items, newest first, for the first page and for
+    // the page after a (createdAt, id) cursor. Both seek on idx_orders_user_created_at.
+    @Query("SELECT new org.example.foodanddrinkproject.dto.OrderSummaryDto(" +
+           "o.id, o.createdAt, o.orderStatus, o.paymentStatus, o.paymentMethod, o.totalAmount, " +
+           "(SELECT COUNT(i) FROM OrderItem i WHERE i.order = o)) " +
+           "FROM Order o " +
+           "WHERE o.user.id = :userId " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryDto> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new org.example.foodanddrinkproject.dto.OrderSummaryDto(" +
+           "o.id, o.createdAt, o.orderStatus, o.paymentStatus, o.paymentMethod, o.totalAmount, " +
+           "(SELECT COUNT(i) FROM OrderItem i WHERE i.order = o)) " +
+           "FROM Order o " +
+           "WHERE o.user.id = :userId " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryDto> findSummariesByUserIdAfter(@Param("userId") Long userId,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+
+    @Query("SELECT o FROM Order o " +
+           "LEFT JOIN FETCH o.user " +
+           "LEFT JOIN FETCH o.items i " +
+           "LEFT JOIN FETCH i.product " +
+           "WHERE o.id = :id")
+    Optional<Order> findWithDetailsById(@Param("id") Long id);
 
     Page<Order> findByOrderStatus(OrderStatus status, Pageable pageable);
 
     @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.orderStatus = 'COMPLETED'")
     BigDecimal sumTotalAmount();
     
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.orderStatus = 'COMPLETED'")
-    Long countCompletedOrders();
-    
-    // Monthly statistics - Revenue
-    @Query("SELECT SUM(o.totalAmount) FROM Order o " +
-           "WHERE o.orderStatus = 'COMPLETED' " +
-           "AND YEAR(o.createdAt) = :year " +
-           "AND MONTH(o.createdAt) = :month")
-    BigDecimal sumTotalAmountByMonth(@Param("month") int month, @Param("year") int year);
-    
-    // Monthly statistics - Completed orders count
-    @Query("SELECT COUNT(o) FROM Order o " +
-           "WHERE o.orderStatus = 'COMPLETED' " +
-           "AND YEAR(o.createdAt) = :year " +
-           "AND MONTH(o.createdAt) = :month")
-    Long countCompletedOrdersByMonth(@Param("month") int month, @Param("year") int year);
-    
-    // Monthly statistics - Total orders count (all statuses)
-    @Query("SELECT COUNT(o) FROM Order o " +
-           "WHERE YEAR(o.createdAt) = :year " +
-           "AND MONTH(o.createdAt) = :month")
-    Long countOrdersByMonth(@Param("month") int month, @Param("year") int year);
-    
-    // Top selling products (all time)
-    @Query("SELECT oi.product.name as productName, " +
-           "SUM(oi.quantity) as quantitySold, " +
-           "SUM(oi.priceAtPurchase * oi.quantity) as revenue " +
-           "FROM OrderItem oi " +
-           "JOIN oi.order o " +
-           "WHERE o.orderStatus = 'COMPLETED' " +
-           "GROUP BY oi.product.id, oi.product.name " +
-           "ORDER BY SUM(oi.quantity) DESC")
-    List<Object[]> findTopSellingProducts(Pageable pageable);
-    
-    // Top selling products (by month)
-    @Query("SELECT oi.product.name as productName, " +
-           "SUM(oi.quantity) as quantitySold, " +
-           "SUM(oi.priceAtPurchase * oi.quantity) as revenue " +
+    // Report rows for orders created in [start, end): one row per order line
+    // (or one row with null item columns for an order without lines), grouped
+    // by order. Fetch size Integer.MIN_VALUE makes MySQL Connector/J stream the
+    // result set row by row instead of buffering it in memory.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o.id, o.orderStatus, o.totalAmount, " +
+           "u.id, u.fullName, u.email, " +
+           "p.id, p.name, oi.quantity, oi.priceAtPurchase " +
+           "FROM Order o " +
+           "LEFT JOIN o.user u " +
+           "LEFT JOIN o.items oi " +
+           "LEFT JOIN oi.product p " +
+           "WHERE o.createdAt >= :start " +
+           "AND o.createdAt < :end " +
+           "ORDER BY o.createdAt, o.id")
+    Stream<Object[]> streamReportRows(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Count orders by status (for dashboard breakdown)
+    Long countByOrderStatus(OrderStatus status);
+
+    // Per-product sales of completed orders (seeds the dashboard statistics store)
+    @Query("SELECT oi.product.id, oi.product.name, " +
+           "SUM(oi.quantity), " +
+           "SUM(oi.priceAtPurchase * oi.quantity) " +
            "FROM OrderItem oi " +
            "JOIN oi.order o " +
            "WHERE o.orderStatus = 'COMPLETED' " +
-           "AND YEAR(o.createdAt) = :year " +
-           "AND MONTH(o.createdAt) = :month " +
-           "GROUP BY oi.product.id, oi.product.name " +
-           "ORDER BY SUM(oi.quantity) DESC")
-    List<Object[]> findTopSellingProductsByMonth(@Param("month") int month, @Param("year") int year, Pageable pageable);
-    
-    // Top customers by spending (all time)
-    @Query("SELECT o.user.fullName as customerName, " +
-           "o.user.email as customerEmail, " +
-           "COUNT(o) as orderCount, " +
-           "SUM(o.totalAmount) as totalSpent " +
-           "FROM Order o " +
-           "WHERE o.orderStatus = 'COMPLETED' " +
-           "GROUP BY o.user.id, o.user.fullName, o.user.email " +
-           "ORDER BY SUM(o.totalAmount) DESC")
-    List<Object[]> findTopCustomers(Pageable pageable);
-    
-    // Top customers by spending (by month)
-    @Query("SELECT o.user.fullName as customerName, " +
-           "o.user.email as customerEmail, " +
-           "COUNT(o) as orderCount, " +
-           "SUM(o.totalAmount) as totalSpent " +
+           "GROUP BY oi.product.id, oi.product.name")
+    List<Object[]> findProductSalesTotals();
+
+    // Per-customer spending on completed orders (seeds the dashboard statistics store)
+    @Query("SELECT o.user.id, o.user.fullName, o.user.email, " +
+           "COUNT(o), " +
+           "SUM(o.totalAmount) " +
            "FROM Order o " +
            "WHERE o.orderStatus = 'COMPLETED' " +
-           "AND YEAR(o.createdAt) = :year " +
-           "AND MONTH(o.createdAt) = :month " +
-           "GROUP BY o.user.id, o.user.fullName, o.user.email " +
-           "ORDER BY SUM(o.totalAmount) DESC")
-    List<Object[]> findTopCustomersByMonth(@Param("month") int month, @Param("year") int year, Pageable pageable);
-
-    // Count orders by status (for dashboard breakdown)
-    Long countByOrderStatus(OrderStatus status);
+           "GROUP BY o.user.id, o.user.fullName, o.user.email")
+    List<Object[]> findCustomerSpendTotals();
     
     // Daily stats for last N days (for chart)
     @Query("SELECT CAST(o.createdAt AS DATE) as date, COUNT(o) as orderCount, COALESCE(SUM(o.totalAmount), 0) as revenue " +
@@ -0,0 +1,72 @@
+package org.example.foodanddrinkproject.repository;
+
+import org.example.foodanddrinkproject.entity.ProductRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductRatingStatsRepository extends JpaRepository<ProductRatingStats, Long> {
+
+    // Adds the deltas in a single statement. A product without a row yet (rated
+    // before the table existed and not backfilled so far) gets one counted from
+    // its ratings instead, which already include the caller's flushed change.
+    @Modifying
+    @Query(value = "INSERT INTO product_rating_stats " +
+                   "(product_id, rating_count, rating_sum, star_1, star_2, star_3, star_4, star_5) " +
+                   "SELECT :productId, COUNT(*), COALESCE(SUM(r.rating_value), 0), " +
+                   "COALESCE(SUM(r.rating_value = 1), 0), COALESCE(SUM(r.rating_value = 2), 0), " +
+                   "COALESCE(SUM(r.rating_value = 3), 0), COALESCE(SUM(r.rating_value = 4), 0), " +
+                   "COALESCE(SUM(r.rating_value = 5), 0) " +
+                   "FROM ratings r WHERE r.product_id = :productId " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "rating_count = rating_count + :count, " +
+                   "rating_sum = rating_sum + :sum, " +
+                   "star_1 = star_1 + :star1, " +
+                   "star_2 = star_2 + :star2, " +
+                   "star_3 = star_3 + :star3, " +
+                   "star_4 = star_4 + :star4, " +
+                   "star_5 = star_5 + :star5",
+           nativeQuery = true)
+    void addDeltas(@Param("productId") Long productId,
+                   @Param("count") long count,
+                   @Param("sum") long sum,
+                   @Param("star1") long star1,
+                   @Param("star2") long star2,
+                   @Param("star3") long star3,
+                   @Param("star4") long star4,
+                   @Param("star5") long star5);
+
+    // Creates the rows of products rated before the table existed. IGNORE skips
+    // rows addDeltas created concurrently.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO product_rating_stats " +
+                   "(product_id, rating_count, rating_sum, star_1, star_2, star_3, star_4, star_5) " +
+                   "SELECT r.product_id, COUNT(*), SUM(r.rating_value), " +
+                   "SUM(r.rating_value = 1), SUM(r.rating_value = 2), SUM(r.rating_value = 3), " +
+                   "SUM(r.rating_value = 4), SUM(r.rating_value = 5) " +
+                   "FROM ratings r " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM product_rating_stats s WHERE s.product_id = r.product_id) " +
+                   "GROUP BY r.product_id",
+           nativeQuery = true)
+    int backfillMissing();
+
+    // Copies the average onto products.avg_rating, which the catalog filters and sorts by.
+    // Also moves updated_at, which seeds the catalog's HTTP validators.
+    @Modifying
+    @Query("UPDATE Product p SET p.avgRating = COALESCE(" +
+           "(SELECT CAST(s.ratingSum AS double) / s.ratingCount FROM ProductRatingStats s " +
+           "WHERE s.productId = p.id AND s.ratingCount > 0), 0), " +
+           "p.updatedAt = LOCAL DATETIME " +
+           "WHERE p.id = :productId")
+    int refreshAverage(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.avgRating = COALESCE(" +
+           "(SELECT CAST(s.ratingSum AS double) / s.ratingCount FROM ProductRatingStats s " +
+           "WHERE s.productId = p.id AND s.ratingCount > 0), 0), " +
+           "p.updatedAt = LOCAL DATETIME")
+    int refreshAllAverages();
+}
@@ -2,23 +2,59 @@ package org.example.foodanddrinkproject.repository;
 
 import jakarta.persistence.LockModeType;
 import org.example.foodanddrinkproject.entity.Product;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+    // Listings always render the category name, fetch it in the same query
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAll(Specification<Product> spec);
+
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findWithCategoryById(Long id);
+
+    // Locks all rows in one statement, in primary key order, so that concurrent
+    // orders sharing products always acquire their locks in the same order
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT p FROM Product p WHERE p.id = :id")
-    Optional<Product> findByIdWithLock(@Param("id") Long id);
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdInWithLock(@Param("ids") Collection<Long> ids);
     
     @Query("SELECT p FROM Product p WHERE p.stockQuantity < :threshold AND p.isActive = true ORDER BY p.stockQuantity ASC")
     List<Product> findLowStockProducts(@Param("threshold") int threshold, Pageable pageable);
+
+    // Variants change the image URLs in product DTOs without touching the row;
+    // moves updated_at, which seeds the catalog's HTTP validators
+    @Query("SELECT p.id FROM Product p WHERE p.imageUrl = :imageUrl")
+    List<Long> findIdsByImageUrl(@Param("imageUrl") String imageUrl);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.updatedAt = LOCAL DATETIME WHERE p.imageUrl = :imageUrl")
+    int touchByImageUrl(@Param("imageUrl") String imageUrl);
+
+    // Seeds the catalog versions used for HTTP validators
+    @Query("SELECT MAX(p.updatedAt) FROM Product p")
+    LocalDateTime findMaxUpdatedAt();
 }
\ No newline at end of file
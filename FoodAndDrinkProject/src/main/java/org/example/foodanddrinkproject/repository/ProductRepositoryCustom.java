@@ -0,0 +1,12 @@
+package org.example.foodanddrinkproject.repository;
+
+import org.example.foodanddrinkproject.entity.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+    // Ids only, for filtering search index matches without loading the entities
+    List<Long> findIds(Specification<Product> spec, Sort sort);
+}
@@ -1,9 +1,12 @@
 package org.example.foodanddrinkproject.repository;
 
+import org.example.foodanddrinkproject.dto.RatingAggregate;
 import org.example.foodanddrinkproject.entity.Rating;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,7 +15,7 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 
 @Repository
-public interface RatingRepository extends JpaRepository<Rating, Long> {
+public interface RatingRepository extends JpaRepository<Rating, Long>, JpaSpecificationExecutor<Rating> {
     
     @Query("SELECT r FROM Rating r JOIN FETCH r.product JOIN FETCH r.user ORDER BY r.createdAt DESC")
     List<Rating> findRecentRatings(Pageable pageable);
@@ -20,4 +23,15 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     Page<Rating> findByProductId(Long productId, Pageable pageable);
     
     Optional<Rating> findByUserIdAndProductId(Long userId, Long productId);
+
+    // Count, average and star histogram in one aggregate query, without loading any Rating
+    @Query("SELECT new org.example.foodanddrinkproject.dto.RatingAggregate(" +
+           "COUNT(r), COALESCE(AVG(r.ratingValue), 0.0), " +
+           "COALESCE(SUM(CASE WHEN r.ratingValue = 1 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN r.ratingValue = 2 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN r.ratingValue = 3 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN r.ratingValue = 4 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN r.ratingValue = 5 THEN 1 ELSE 0 END), 0)) " +
+           "FROM Rating r WHERE r.product.id = :productId")
+    RatingAggregate aggregateByProductId(@Param("productId") Long productId);
 }
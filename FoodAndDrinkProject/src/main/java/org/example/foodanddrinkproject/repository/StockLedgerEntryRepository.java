@@ -0,0 +1,19 @@
+package org.example.foodanddrinkproject.repository;
+
+import org.example.foodanddrinkproject.entity.StockLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockLedgerEntryRepository extends JpaRepository<StockLedgerEntry, Long> {
+    // Oldest pending entries first (one flush batch)
+    List<StockLedgerEntry> findAllByOrderByIdAsc(Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(e.delta), 0) FROM StockLedgerEntry e WHERE e.productId = :productId")
+    long sumDeltaByProductId(@Param("productId") Long productId);
+}
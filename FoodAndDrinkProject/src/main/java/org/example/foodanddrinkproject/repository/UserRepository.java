@@ -1,14 +1,24 @@
 package org.example.foodanddrinkproject.repository;
 
+import jakarta.persistence.LockModeType;
 import org.example.foodanddrinkproject.entity.User;
 import org.example.foodanddrinkproject.enums.AuthProvider;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     Optional<User> findByEmail(String email);
     Boolean existsByEmail(String email);
     Optional<User> findByAuthProviderAndProviderId(AuthProvider authProvider, String providerId);
+
+    // Serializes a user's cart writes and checkout when carts are not cached in memory
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdWithLock(@Param("id") Long id);
 }
\ No newline at end of file
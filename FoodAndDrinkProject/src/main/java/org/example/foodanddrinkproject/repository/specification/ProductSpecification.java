@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 
 @Component
 public class ProductSpecification {
@@ -77,6 +78,19 @@ public class ProductSpecification {
         };
     }
 
+    // Id set (candidates resolved by the product search index)
+    public Specification<Product> hasIdIn(Collection<Long> ids) {
+        return (root, query, cb) -> {
+            if (ids == null) {
+                return cb.conjunction();
+            }
+            if (ids.isEmpty()) {
+                return cb.disjunction();
+            }
+            return root.get("id").in(ids);
+        };
+    }
+
     // filter out inactive products for public view
     public Specification<Product> isActive() {
         return (root, query, cb) -> cb.isTrue(root.get("isActive"));
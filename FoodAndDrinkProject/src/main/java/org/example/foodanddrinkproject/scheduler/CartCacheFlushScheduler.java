@@ -0,0 +1,34 @@
+package org.example.foodanddrinkproject.scheduler;
+
+import org.example.foodanddrinkproject.cache.ActiveCartCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes carts changed in memory back to the database and evicts idle ones.
+ */
+@Component
+public class CartCacheFlushScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartCacheFlushScheduler.class);
+
+    private final ActiveCartCache activeCartCache;
+
+    public CartCacheFlushScheduler(ActiveCartCache activeCartCache) {
+        this.activeCartCache = activeCartCache;
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.cache.flush-interval-ms:5000}")
+    public void flush() {
+        try {
+            int written = activeCartCache.flushDirty();
+            if (written > 0) {
+                logger.debug("Flushed {} carts, {} cached", written, activeCartCache.size());
+            }
+        } catch (Exception e) {
+            logger.error("Error occurred while flushing cached carts", e);
+        }
+    }
+}
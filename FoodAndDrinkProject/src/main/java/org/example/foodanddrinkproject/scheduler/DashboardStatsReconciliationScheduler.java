@@ -0,0 +1,43 @@
+package org.example.foodanddrinkproject.scheduler;
+
+import org.example.foodanddrinkproject.stats.DashboardStatsStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks the incrementally maintained dashboard statistics against the SQL
+ * truth once a day (the full-history scans are expensive) and replaces them,
+ * logging any drift. The user count, which has no events, is refreshed more often.
+ */
+@Component
+public class DashboardStatsReconciliationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsReconciliationScheduler.class);
+
+    private final DashboardStatsStore statsStore;
+
+    public DashboardStatsReconciliationScheduler(DashboardStatsStore statsStore) {
+        this.statsStore = statsStore;
+    }
+
+    @Scheduled(cron = "${app.dashboard.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        try {
+            statsStore.reconcile();
+        } catch (Exception e) {
+            logger.error("Error occurred while reconciling dashboard statistics", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.user-count-interval-ms:300000}",
+               initialDelayString = "${app.dashboard.user-count-interval-ms:300000}")
+    public void refreshUserCount() {
+        try {
+            statsStore.refreshUserCount();
+        } catch (Exception e) {
+            logger.error("Error occurred while refreshing the dashboard user count", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.foodanddrinkproject.scheduler;
+
+import org.example.foodanddrinkproject.notification.NotificationDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Drains the notification outbox and periodically cleans it up.
+ */
+@Component
+public class NotificationDispatchScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatchScheduler.class);
+
+    private final NotificationDispatcher dispatcher;
+    private final Duration claimTimeout;
+    private final Duration retention;
+
+    public NotificationDispatchScheduler(NotificationDispatcher dispatcher,
+                                         @Value("${app.notification.claim-timeout-minutes:10}") long claimTimeoutMinutes,
+                                         @Value("${app.notification.retention-days:7}") long retentionDays) {
+        this.dispatcher = dispatcher;
+        this.claimTimeout = Duration.ofMinutes(claimTimeoutMinutes);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notification.dispatch-interval-ms:1000}")
+    public void dispatch() {
+        try {
+            dispatcher.dispatchAll();
+        } catch (Exception e) {
+            logger.error("Error occurred while dispatching notifications", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notification.housekeeping-interval-ms:60000}")
+    public void housekeeping() {
+        try {
+            dispatcher.housekeeping(claimTimeout, retention);
+        } catch (Exception e) {
+            logger.error("Error occurred while cleaning up the notification outbox", e);
+        }
+    }
+}
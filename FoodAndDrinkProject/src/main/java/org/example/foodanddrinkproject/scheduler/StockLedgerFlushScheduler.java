@@ -0,0 +1,35 @@
+package org.example.foodanddrinkproject.scheduler;
+
+import org.example.foodanddrinkproject.inventory.HotStockLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the hot product stock ledger to products.stock_quantity.
+ * Does nothing unless app.stock.ledger.enabled is set.
+ */
+@Component
+public class StockLedgerFlushScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedgerFlushScheduler.class);
+
+    private final HotStockLedger stockLedger;
+
+    public StockLedgerFlushScheduler(HotStockLedger stockLedger) {
+        this.stockLedger = stockLedger;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.ledger.flush-interval-ms:1000}")
+    public void flush() {
+        if (!stockLedger.isEnabled()) {
+            return;
+        }
+        try {
+            stockLedger.flushAll();
+        } catch (Exception e) {
+            logger.error("Error occurred while flushing the stock ledger", e);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package org.example.foodanddrinkproject.search;
+
+import org.example.foodanddrinkproject.dto.ProductDto;
+import org.example.foodanddrinkproject.entity.Product;
+import org.example.foodanddrinkproject.event.ProductChangedEvent;
+import org.example.foodanddrinkproject.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the name, brand and description of active
+ * products. Replaces the LIKE '%term%' predicates for text search so that
+ * /api/products no longer scans the whole products table. Loaded once at
+ * startup and kept up to date from ProductChangedEvent after each product
+ * write commits.
+ * Events that arrive while the products are being loaded are replayed onto
+ * the new index, so the snapshot cannot undo them.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int BRAND_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final ProductRepository productRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // token -> (productId -> weight), over name + brand + description
+    private final TreeMap<String, Map<Long, Integer>> textIndex = new TreeMap<>();
+    // token -> productIds, brand only (for the brand filter)
+    private final TreeMap<String, Set<Long>> brandIndex = new TreeMap<>();
+    // productId -> tokens, needed to remove a product's postings on update/delete
+    private final Map<Long, Set<String>> textTokensByProduct = new HashMap<>();
+    private final Map<Long, Set<String>> brandTokensByProduct = new HashMap<>();
+
+    // Events received while rebuild() loads products; null when not rebuilding
+    private List<ProductChangedEvent> pendingEvents;
+    private volatile boolean ready = false;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingEvents = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Product> products;
+        try {
+            products = productRepository.findAll();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingEvents = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            textIndex.clear();
+            brandIndex.clear();
+            textTokensByProduct.clear();
+            brandTokensByProduct.clear();
+            for (Product product : products) {
+                if (!product.isActive()) {
+                    continue;
+                }
+                addDocument(product.getId(), product.getName(), product.getBrand(), product.getDescription());
+            }
+            // Applying an event twice is harmless: it replaces the product's postings
+            pendingEvents.forEach(this::apply);
+            pendingEvents = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Product search index built: {} products, {} tokens in {} ms",
+                textTokensByProduct.size(), textIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductChangedEvent.ChangeType changeType = event.getChangeType();
+        if (changeType == ProductChangedEvent.ChangeType.STOCK
+                || changeType == ProductChangedEvent.ChangeType.RATING) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            apply(event);
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(ProductChangedEvent event) {
+        removeDocument(event.getProductId());
+        ProductDto product = event.getProductDto();
+        if (event.getChangeType() != ProductChangedEvent.ChangeType.DELETED && product != null && product.isActive()) {
+            addDocument(product.getId(), product.getName(), product.getBrand(), product.getDescription());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns ids of products matching every token of the given name query
+     * (prefix match on name, brand and description) and of the brand query
+     * (prefix match on brand), best matches first. All matches are returned;
+     * the caller pages them and loads only the products on the page.
+     */
+    public List<Long> search(String nameQuery, String brandQuery) {
+        List<String> nameTokens = tokenize(nameQuery);
+        List<String> brandTokens = tokenize(brandQuery);
+        if (nameTokens.isEmpty() && brandTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+
+            for (String token : nameTokens) {
+                Map<Long, Integer> matches = new HashMap<>();
+                for (Map<Long, Integer> postings : prefixRange(textIndex, token).values()) {
+                    postings.forEach((id, weight) -> matches.merge(id, weight, Math::max));
+                }
+                scores = intersect(scores, matches);
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            for (String token : brandTokens) {
+                Map<Long, Integer> matches = new HashMap<>();
+                for (Set<Long> postings : prefixRange(brandIndex, token).values()) {
+                    postings.forEach(id -> matches.put(id, BRAND_WEIGHT));
+                }
+                scores = intersect(scores, matches);
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            List<Long> ids = new ArrayList<>(ranked.size());
+            for (Map.Entry<Long, Integer> entry : ranked) {
+                ids.add(entry.getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (!StringUtils.hasText(text)) {
+            return Collections.emptyList();
+        }
+        // Mirror MySQL's accent-insensitive collation: "Cà phê" matches "ca phe"
+        String normalized = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        normalized = DIACRITICS.matcher(normalized).replaceAll("").replace('đ', 'd');
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void addDocument(Long id, String name, String brand, String description) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(description).forEach(t -> weights.merge(t, DESCRIPTION_WEIGHT, Math::max));
+        tokenize(brand).forEach(t -> weights.merge(t, BRAND_WEIGHT, Math::max));
+        tokenize(name).forEach(t -> weights.merge(t, NAME_WEIGHT, Math::max));
+
+        weights.forEach((token, weight) -> textIndex.computeIfAbsent(token, k -> new HashMap<>()).put(id, weight));
+        textTokensByProduct.put(id, weights.keySet());
+
+        Set<String> brandTokens = new HashSet<>(tokenize(brand));
+        brandTokens.forEach(token -> brandIndex.computeIfAbsent(token, k -> new HashSet<>()).add(id));
+        brandTokensByProduct.put(id, brandTokens);
+    }
+
+    private void removeDocument(Long id) {
+        Set<String> textTokens = textTokensByProduct.remove(id);
+        if (textTokens != null) {
+            for (String token : textTokens) {
+                Map<Long, Integer> postings = textIndex.get(token);
+                if (postings != null) {
+                    postings.remove(id);
+                    if (postings.isEmpty()) {
+                        textIndex.remove(token);
+                    }
+                }
+            }
+        }
+
+        Set<String> brandTokens = brandTokensByProduct.remove(id);
+        if (brandTokens != null) {
+            for (String token : brandTokens) {
+                Set<Long> postings = brandIndex.get(token);
+                if (postings != null) {
+                    postings.remove(id);
+                    if (postings.isEmpty()) {
+                        brandIndex.remove(token);
+                    }
+                }
+            }
+        }
+    }
+
+    private static <V> NavigableMap<String, V> prefixRange(TreeMap<String, V> index, String prefix) {
+        return index.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static Map<Long, Integer> intersect(Map<Long, Integer> scores, Map<Long, Integer> matches) {
+        if (scores == null) {
+            return matches;
+        }
+        Map<Long, Integer> result = new HashMap<>();
+        scores.forEach((id, score) -> {
+            Integer weight = matches.get(id);
+            if (weight != null) {
+                result.put(id, score + weight);
+            }
+        });
+        return result;
+    }
+}
@@ -32,7 +32,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
 
     @Transactional
-    public UserDetails loadUserById(Long id) {
+    public UserPrincipal loadUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id : " + id));
         return UserPrincipal.create(user);
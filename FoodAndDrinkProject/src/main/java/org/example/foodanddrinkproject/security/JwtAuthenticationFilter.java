@@ -1,6 +1,7 @@
 package org.example.foodanddrinkproject.security;
 
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,12 +24,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 
     private final JwtTokenProvider tokenProvider;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final PrincipalCache principalCache;
 
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService customUserDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, PrincipalCache principalCache) {
         this.tokenProvider = tokenProvider;
-        this.customUserDetailsService = customUserDetailsService;
+        this.principalCache = principalCache;
     }
 
 
@@ -40,12 +41,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
 
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromJWT(jwt);
+            // Verified once; the claims carry the user id
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.parseClaims(jwt) : null;
+            if (claims != null) {
+                Long userId = tokenProvider.getUserId(claims);
 
 
-                // Note: loadUserById was created in Member A's task
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+                // Cached by user id, invalidated whenever the user is changed
+                UserDetails userDetails = principalCache.get(userId);
 
                 // Check if user is enabled (not banned)
                 if (!userDetails.isEnabled()) {
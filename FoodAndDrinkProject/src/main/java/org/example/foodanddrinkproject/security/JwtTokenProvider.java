@@ -3,6 +3,8 @@ package org.example.foodanddrinkproject.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import org.example.foodanddrinkproject.cache.BoundedCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,7 +13,12 @@ import org.springframework.stereotype.Component;
 
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HexFormat;
 
 
 @Component
@@ -29,8 +36,26 @@ public class JwtTokenProvider {
     private int jwtExpirationInMs;
 
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Recently verified tokens by SHA-256, so a client's repeated calls skip the HMAC check
+    @Value("${app.jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries;
+
+
+    @Value("${app.jwt.verified-cache.ttl-seconds:30}")
+    private long verifiedCacheTtlSeconds;
+
+
+    // Both are immutable and thread-safe, built once from the configured secret
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private BoundedCache<String, Claims> verifiedTokens;
+
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedTokens = new BoundedCache<>(verifiedCacheMaxEntries, Duration.ofSeconds(verifiedCacheTtlSeconds));
     }
 
 
@@ -46,27 +71,51 @@ public class JwtTokenProvider {
                 .setSubject(Long.toString(userPrincipal.getId()))
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
 
     public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return getUserId(jwtParser.parseClaimsJws(token).getBody());
+    }
 
 
+    public Long getUserId(Claims claims) {
         return Long.parseLong(claims.getSubject());
     }
 
 
     public boolean validateToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+
+    /**
+     * Verifies the token and returns its claims, or null if it is invalid.
+     * Verified tokens are remembered for a short time; a cached entry is
+     * still rejected once the token itself has expired.
+     */
+    public Claims parseClaims(String authToken) {
+        if (authToken == null) {
+            logger.error("JWT claims string is empty");
+            return null;
+        }
+        String tokenHash = sha256(authToken);
+        Claims cached = verifiedTokens.get(tokenHash);
+        if (cached != null) {
+            if (cached.getExpiration() == null || cached.getExpiration().after(new Date())) {
+                return cached;
+            }
+            verifiedTokens.invalidate(tokenHash);
+            logger.error("Expired JWT token");
+            return null;
+        }
+
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            verifiedTokens.put(tokenHash, claims);
+            return claims;
         } catch (SignatureException ex) {
             logger.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -78,6 +127,17 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty");
         }
-        return false;
+        return null;
+    }
+
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            // Every JRE ships SHA-256
+            throw new IllegalStateException(ex);
+        }
     }
 }
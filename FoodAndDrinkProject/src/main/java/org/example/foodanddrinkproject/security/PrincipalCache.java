@@ -0,0 +1,59 @@
+package org.example.foodanddrinkproject.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.foodanddrinkproject.cache.BoundedCache;
+import org.example.foodanddrinkproject.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of authenticated principals by user id, so that
+ * JwtAuthenticationFilter does not load the user and its roles on every
+ * request. Entries are dropped as soon as a UserChangedEvent commits, which
+ * keeps bans and role changes immediate; the TTL covers anything else.
+ *
+ * principal.cache.load records the cost of a miss, i.e. what each hit saves.
+ */
+@Component
+public class PrincipalCache {
+
+    private final BoundedCache<Long, UserPrincipal> principals;
+    private final CustomUserDetailsService userDetailsService;
+    private final Timer loadTimer;
+
+    public PrincipalCache(CustomUserDetailsService userDetailsService,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.cache.principal.max-entries:10000}") int maxEntries,
+                          @Value("${app.cache.principal.ttl-seconds:60}") long ttlSeconds) {
+        this.userDetailsService = userDetailsService;
+        this.principals = new BoundedCache<>(maxEntries, Duration.ofSeconds(ttlSeconds));
+
+        FunctionCounter.builder("principal.cache.hits", principals, BoundedCache::hitCount)
+                .description("Authenticated requests served without loading the user")
+                .register(meterRegistry);
+        FunctionCounter.builder("principal.cache.misses", principals, BoundedCache::missCount)
+                .description("Authenticated requests that loaded the user from the database")
+                .register(meterRegistry);
+        Gauge.builder("principal.cache.size", principals, BoundedCache::size)
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("principal.cache.load")
+                .description("Time to load a principal on a cache miss")
+                .register(meterRegistry);
+    }
+
+    public UserPrincipal get(Long userId) {
+        return principals.get(userId,
+                id -> loadTimer.record(() -> userDetailsService.loadUserById(id)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        principals.invalidate(event.getUserId());
+    }
+}
@@ -3,7 +3,10 @@ package org.example.foodanddrinkproject.service;
 import org.example.foodanddrinkproject.dto.DashboardStatsDto;
 import org.example.foodanddrinkproject.dto.OrderDto;
 
+import java.util.List;
+
 public interface ChatworkService {
     void sendOrderNotification(OrderDto order);
+    void sendOrderDigest(List<OrderDto> orders);
     void sendMonthlyStatistics(DashboardStatsDto stats, int month, int year);
 }
\ No newline at end of file
@@ -2,7 +2,10 @@ package org.example.foodanddrinkproject.service;
 
 import org.example.foodanddrinkproject.dto.DashboardStatsDto;
 
+import java.time.LocalDateTime;
+
 public interface DashboardService {
     DashboardStatsDto getStats();
     DashboardStatsDto getMonthlyStats(int month, int year);
+    DashboardStatsDto getStatsBetween(LocalDateTime start, LocalDateTime end);
 }
\ No newline at end of file
@@ -4,10 +4,12 @@ import org.springframework.web.multipart.MultipartFile;
 
 public interface FileStorageService {
     /**
-     * Stores a file and returns the relative URL path
+     * Stores a file and returns the relative URL path. The file is named
+     * after the SHA-256 of its content, so uploading the same image twice
+     * returns the same path and stores it once.
      * @param file the file to store
      * @param subDirectory subdirectory under uploads (e.g., "products")
-     * @return relative URL path (e.g., "/uploads/products/filename.jpg")
+     * @return relative URL path (e.g., "/uploads/products/<sha-256>.jpg")
      */
     String storeFile(MultipartFile file, String subDirectory);
 }
@@ -1,9 +1,22 @@
 package org.example.foodanddrinkproject.service;
 
+import org.example.foodanddrinkproject.dto.NotificationPayload;
 import org.example.foodanddrinkproject.dto.OrderDto;
+import org.example.foodanddrinkproject.enums.NotificationType;
+import org.springframework.mail.SimpleMailMessage;
 
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends order notifications synchronously. Failures are thrown to the caller
+ * (NotificationDispatcher), which retries them from the outbox.
+ */
 public interface NotificationService {
-    void sendOrderConfirmationEmail(OrderDto order);
-    void sendOrderStatusUpdateEmail(OrderDto order, String oldStatus, String newStatus);
-    void sendAdminNotification(OrderDto order);
+    void sendAdminDigest(List<OrderDto> orders);
+
+    // Bulk path: build the messages, then send them over one SMTP connection.
+    // sendEmails returns the failure of each unsent message by its index.
+    SimpleMailMessage buildEmail(NotificationType type, NotificationPayload payload);
+    Map<Integer, Exception> sendEmails(List<SimpleMailMessage> messages);
 }
@@ -1,7 +1,9 @@
 package org.example.foodanddrinkproject.service;
 
 import org.example.foodanddrinkproject.dto.AdminUpdateOrderRequest;
+import org.example.foodanddrinkproject.dto.CursorPage;
 import org.example.foodanddrinkproject.dto.OrderDto;
+import org.example.foodanddrinkproject.dto.OrderSummaryDto;
 import org.example.foodanddrinkproject.dto.PlaceOrderRequest;
 import org.example.foodanddrinkproject.enums.OrderStatus;
 import org.springframework.data.domain.Page;
@@ -12,9 +14,13 @@ import java.util.List;
 public interface OrderService {
     OrderDto placeOrder(Long userId, PlaceOrderRequest request);
     List<OrderDto> getMyOrders(Long userId);
+    // Order history without items, newest first, one cursor page at a time
+    CursorPage<OrderSummaryDto> getMyOrderHistory(Long userId, String cursor, int size);
     OrderDto getOrderById(Long userId, Long orderId);
     OrderDto getOrderByIdForAdmin(Long orderId);
 
     Page<OrderDto> getAllOrders(OrderStatus status, Long userId, Pageable pageable);
+    // Keyset-paginated variant, newest first, without a count query
+    CursorPage<OrderDto> getAllOrders(OrderStatus status, Long userId, String cursor, int size);
     OrderDto updateOrder(Long orderId, AdminUpdateOrderRequest request);
 }
\ No newline at end of file
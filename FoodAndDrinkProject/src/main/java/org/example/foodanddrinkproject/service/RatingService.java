@@ -1,6 +1,7 @@
 package org.example.foodanddrinkproject.service;
 
 import org.example.foodanddrinkproject.dto.CreateRatingRequest;
+import org.example.foodanddrinkproject.dto.CursorPage;
 import org.example.foodanddrinkproject.dto.ProductRatingSummaryDto;
 import org.example.foodanddrinkproject.dto.RatingDto;
 import org.example.foodanddrinkproject.entity.Rating;
@@ -18,6 +19,9 @@ public interface RatingService {
     // Admin: get all ratings for a product
     Page<RatingDto> getRatingsByProductId(Long productId, Pageable pageable);
     
+    // Keyset-paginated ratings, newest first, optionally of one product; no count query
+    CursorPage<RatingDto> getRatings(Long productId, String cursor, int size);
+    
     // User: get aggregate rating summary + own rating
     ProductRatingSummaryDto getProductRatingSummary(Long productId, Long userId);
     
@@ -1,6 +1,7 @@
 package org.example.foodanddrinkproject.service;
 
 import org.example.foodanddrinkproject.dto.ChangePasswordRequest;
+import org.example.foodanddrinkproject.dto.CursorPage;
 import org.example.foodanddrinkproject.dto.UpdateProfileRequest;
 import org.example.foodanddrinkproject.dto.UserProfileDto;
 import org.springframework.data.domain.Page;
@@ -12,6 +13,8 @@ public interface    UserService {
     void changePassword(Long userId, ChangePasswordRequest request);
 
     Page<UserProfileDto> getAllUsers(Pageable pageable);
+    // Keyset-paginated variant, newest first, without a count query
+    CursorPage<UserProfileDto> getAllUsers(String cursor, int size);
     void banUser(Long userId, boolean isEnabled);
     void updateUser(Long userId, org.example.foodanddrinkproject.dto.AdminUpdateUserRequest request);
     org.example.foodanddrinkproject.dto.UserProfileDto getUserById(Long id);
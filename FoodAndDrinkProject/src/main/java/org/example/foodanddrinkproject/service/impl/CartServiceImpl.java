@@ -1,169 +1,137 @@
 package org.example.foodanddrinkproject.service.impl;
+import org.example.foodanddrinkproject.cache.ActiveCart;
+import org.example.foodanddrinkproject.cache.ActiveCartCache;
 import org.example.foodanddrinkproject.dto.AddItemToCartRequest;
 import org.example.foodanddrinkproject.dto.CartDto;
 import org.example.foodanddrinkproject.dto.CartItemDto;
-import org.example.foodanddrinkproject.entity.Cart;
-import org.example.foodanddrinkproject.entity.CartItem;
-import org.example.foodanddrinkproject.entity.Product;
-import org.example.foodanddrinkproject.entity.User;
-import org.example.foodanddrinkproject.enums.CartStatus;
+import org.example.foodanddrinkproject.dto.CartLineView;
+import org.example.foodanddrinkproject.dto.ProductDto;
 import org.example.foodanddrinkproject.exception.BadRequestException;
 import org.example.foodanddrinkproject.exception.ResourceNotFoundException;
-import org.example.foodanddrinkproject.repository.CartRepository;
-import org.example.foodanddrinkproject.repository.ProductRepository;
-import org.example.foodanddrinkproject.repository.UserRepository;
+import org.example.foodanddrinkproject.media.ImageVariant;
+import org.example.foodanddrinkproject.media.ImageVariants;
 import org.example.foodanddrinkproject.service.CartService;
+import org.example.foodanddrinkproject.service.ProductService;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
+/**
+ * Cart operations work on the in-memory ActiveCart; ActiveCartCache writes
+ * them to the database in the background and before checkout. Cart lines
+ * are addressed by product id: a line added in memory has no cart item row yet.
+ */
 @Service
 public class CartServiceImpl implements CartService {
 
-    private final CartRepository cartRepository;
-    private final ProductRepository productRepository;
-    private final UserRepository userRepository;
+    private final ActiveCartCache activeCartCache;
+    private final ProductService productService;
+    private final ImageVariants imageVariants;
 
-    public CartServiceImpl(CartRepository cartRepository,
-                           ProductRepository productRepository,
-                           UserRepository userRepository) {
-        this.cartRepository = cartRepository;
-        this.productRepository = productRepository;
-        this.userRepository = userRepository;
+    public CartServiceImpl(ActiveCartCache activeCartCache,
+                           ProductService productService,
+                           ImageVariants imageVariants) {
+        this.activeCartCache = activeCartCache;
+        this.productService = productService;
+        this.imageVariants = imageVariants;
     }
 
     @Override
-    @Transactional
     public CartDto getMyCart(Long userId) {
-        Cart cart = getActiveCartOrCreate(userId);
-        return mapToDto(cart);
+        return activeCartCache.withCart(userId, this::mapToDto);
     }
 
     @Override
-    @Transactional
     public CartDto addItemToCart(Long userId, AddItemToCartRequest request) {
-        Cart cart = getActiveCartOrCreate(userId);
-        Product product = productRepository.findById(request.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", request.getProductId()));
+        // Served from the catalog cache
+        ProductDto product = productService.getProductById(request.getProductId());
 
         if (!product.isActive()) {
             throw new BadRequestException("Product is not available.");
         }
 
-        Optional<CartItem> existingItemOpt = cart.getItems().stream()
-                .filter(item -> item.getProduct().getId().equals(product.getId()))
-                .findFirst();
+        return activeCartCache.withCart(userId, cart -> {
+            CartLineView existingLine = cart.line(product.getId());
 
-        int newQuantity = request.getQuantity();
-        if (existingItemOpt.isPresent()) {
-            newQuantity += existingItemOpt.get().getQuantity();
-        }
-
-        if (newQuantity > product.getStockQuantity()) {
-            throw new BadRequestException("Not enough stock. Available: " + product.getStockQuantity());
-        }
+            int newQuantity = request.getQuantity();
+            if (existingLine != null) {
+                newQuantity += existingLine.quantity();
+            }
 
-        if (existingItemOpt.isPresent()) {
-            existingItemOpt.get().setQuantity(newQuantity);
-        } else {
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setProduct(product);
-            newItem.setQuantity(newQuantity);
-            cart.addItem(newItem);
-        }
+            if (newQuantity > product.getStockQuantity()) {
+                throw new BadRequestException("Not enough stock. Available: " + product.getStockQuantity());
+            }
 
-        Cart savedCart = cartRepository.save(cart);
-        return mapToDto(savedCart);
+            cart.put(new CartLineView(
+                    product.getId(), product.getName(), product.getImageUrl(),
+                    product.getPrice(), product.getDiscountPrice(), newQuantity));
+            return mapToDto(cart);
+        });
     }
 
     @Override
-    @Transactional
     public CartDto decrementItemQuantity(Long userId, AddItemToCartRequest request) {
-        Cart cart = getActiveCartOrCreate(userId);
-        CartItem cartItem = cart.getItems().stream()
-                .filter(item -> item.getProduct().getId().equals(request.getProductId()))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Item not found in cart", "productId", request.getProductId()));
-
-        int amountToRemove = request.getQuantity();
-        int newQuantity = cartItem.getQuantity() - amountToRemove;
-
-        if (newQuantity <= 0) {
-            cart.removeItem(cartItem);
-        } else {
-            cartItem.setQuantity(newQuantity);
-        }
-
-        Cart savedCart = cartRepository.save(cart);
-        return mapToDto(savedCart);
+        return activeCartCache.withCart(userId, cart -> {
+            CartLineView cartItem = cart.line(request.getProductId());
+            if (cartItem == null) {
+                throw new ResourceNotFoundException("Item not found in cart", "productId", request.getProductId());
+            }
+
+            int amountToRemove = request.getQuantity();
+            int newQuantity = cartItem.quantity() - amountToRemove;
+
+            if (newQuantity <= 0) {
+                cart.remove(cartItem.productId());
+            } else {
+                cart.put(cartItem.withQuantity(newQuantity));
+            }
+            return mapToDto(cart);
+        });
     }
 
     @Override
-    @Transactional
     public CartDto removeItem(Long userId, Long productId) {
-        Cart cart = getActiveCartOrCreate(userId);
-        CartItem cartItem = cart.getItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Item not found", "productId", productId));
-
-        cart.removeItem(cartItem);
-        Cart savedCart = cartRepository.save(cart);
-        return mapToDto(savedCart);
+        return activeCartCache.withCart(userId, cart -> {
+            if (!cart.remove(productId)) {
+                throw new ResourceNotFoundException("Item not found", "productId", productId);
+            }
+            return mapToDto(cart);
+        });
     }
 
     @Override
-    @Transactional
     public void clearCart(Long userId) {
-        Cart cart = getActiveCartOrCreate(userId);
-        cart.getItems().clear();
-        cartRepository.save(cart);
+        activeCartCache.withCart(userId, cart -> {
+            cart.clear();
+            return null;
+        });
     }
 
-
-    private Cart getActiveCartOrCreate(Long userId) {
-        return cartRepository.findByUserIdAndStatus(userId, CartStatus.ACTIVE)
-                .orElseGet(() -> {
-                    User user = userRepository.findById(userId)
-                            .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-                    Cart newCart = new Cart();
-                    newCart.setUser(user);
-                    newCart.setStatus(CartStatus.ACTIVE);
-                    return cartRepository.save(newCart);
-                });
-    }
-
-    private CartDto mapToDto(Cart cart) {
+    private CartDto mapToDto(ActiveCart cart) {
         CartDto dto = new CartDto();
-        dto.setId(cart.getId());
+        dto.setId(cart.getCartId());
 
-        List<CartItemDto> items = cart.getItems().stream().map(item -> {
+        List<CartItemDto> items = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartLineView line : cart.lines()) {
             CartItemDto itemDto = new CartItemDto();
-            itemDto.setId(item.getId());
-            itemDto.setProductId(item.getProduct().getId());
-            itemDto.setProductName(item.getProduct().getName());
-            itemDto.setImageUrl(item.getProduct().getImageUrl());
-            BigDecimal unitPrice = item.getProduct().getDiscountPrice() != null
-                    ? item.getProduct().getDiscountPrice()
-                    : item.getProduct().getPrice();
-            itemDto.setPrice(unitPrice);
-            itemDto.setQuantity(item.getQuantity());
-            itemDto.setSubtotal(unitPrice.multiply(BigDecimal.valueOf(item.getQuantity())));
-            return itemDto;
-        }).collect(Collectors.toList());
+            itemDto.setProductId(line.productId());
+            itemDto.setProductName(line.productName());
+            itemDto.setImageUrl(line.imageUrl());
+            itemDto.setThumbnailUrl(imageVariants.url(line.imageUrl(), ImageVariant.THUMBNAIL));
+            itemDto.setPrice(line.unitPrice());
+            itemDto.setQuantity(line.quantity());
+            BigDecimal subtotal = line.subtotal();
+            itemDto.setSubtotal(subtotal);
+            items.add(itemDto);
+            total = total.add(subtotal);
+        }
 
         dto.setItems(items);
-
-        BigDecimal total = items.stream()
-                .map(CartItemDto::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
         dto.setTotalAmount(total);
 
         return dto;
     }
-}
\ No newline at end of file
+}
@@ -4,9 +4,11 @@ package org.example.foodanddrinkproject.service.impl;
 import org.example.foodanddrinkproject.dto.CategoryDto;
 import org.example.foodanddrinkproject.dto.CategoryRequest;
 import org.example.foodanddrinkproject.entity.Category;
+import org.example.foodanddrinkproject.event.CategoryChangedEvent;
 import org.example.foodanddrinkproject.exception.ResourceNotFoundException;
 import org.example.foodanddrinkproject.repository.CategoryRepository;
 import org.example.foodanddrinkproject.service.CategoryService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,10 +19,13 @@ import java.util.stream.Collectors;
 @Service
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository,
+                               ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -50,6 +55,7 @@ public class CategoryServiceImpl implements CategoryService {
         category.setDescription(request.getDescription());
 
         Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(this, saved.getId()));
         return convertToDto(saved);
     }
 
@@ -60,6 +66,7 @@ public class CategoryServiceImpl implements CategoryService {
             throw new ResourceNotFoundException("Category", "id", id);
         }
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(this, id));
     }
 
 
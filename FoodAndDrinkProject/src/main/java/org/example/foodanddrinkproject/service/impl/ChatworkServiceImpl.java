@@ -2,6 +2,7 @@ package org.example.foodanddrinkproject.service.impl;
 
 import org.example.foodanddrinkproject.dto.DashboardStatsDto;
 import org.example.foodanddrinkproject.dto.OrderDto;
+import org.example.foodanddrinkproject.notification.NotificationTemplates;
 import org.example.foodanddrinkproject.service.ChatworkService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,16 +10,32 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class ChatworkServiceImpl implements ChatworkService {
 
     private static final Logger logger = LoggerFactory.getLogger(ChatworkServiceImpl.class);
-    private final RestTemplate restTemplate = new RestTemplate();
+    // Longest digest message before the remaining orders are summarised as a count
+    private static final int DIGEST_MAX_LINES = 50;
+
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("MM/yyyy");
+
+    private final RestTemplate restTemplate;
+    private final NotificationTemplates templates;
 
     @Value("${app.chatwork.api-token}")
     private String apiToken;
@@ -29,103 +46,54 @@ public class ChatworkServiceImpl implements ChatworkService {
     @Value("${app.chatwork.api-url}")
     private String apiUrl;
 
+    /**
+     * The JDK client keeps connections to the Chatwork API alive and reuses
+     * them across requests; the timeouts stop a stalled API call from holding
+     * a dispatcher slot indefinitely.
+     */
+    public ChatworkServiceImpl(NotificationTemplates templates,
+                               @Value("${app.chatwork.connect-timeout-ms:3000}") long connectTimeoutMs,
+                               @Value("${app.chatwork.read-timeout-ms:5000}") long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.templates = templates;
+    }
+
     @Override
     public void sendOrderNotification(OrderDto order) {
-        try {
-            String url = apiUrl + "/rooms/" + roomId + "/messages";
-            HttpHeaders headers = new HttpHeaders();
-            headers.add("X-ChatWorkToken", apiToken);
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        postMessage("🛒 New Order Received! #" + order.getId(),
+                templates.render(NotificationTemplates.CHATWORK_ORDER, Map.of("order", order)));
 
-            String messageContent = String.format(
-                    "[info][title]🛒 New Order Received! #%d[/title]" +
-                            "Total Amount: $%.2f\n" +
-                            "Payment Method: %s\n" +
-                            "Status: %s[/info]",
-                    order.getId(),
-                    order.getTotalAmount(),
-                    order.getPaymentMethod(),
-                    order.getOrderStatus()
-            );
-
-            MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
-            map.add("body", messageContent);
-
-            HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(map, headers);
+        logger.info("Chatwork notification sent for Order ID: {}", order.getId());
+    }
 
-            restTemplate.postForObject(url, request, String.class);
+    @Override
+    public void sendOrderDigest(List<OrderDto> orders) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderDto order : orders) {
+            if (order.getTotalAmount() != null) {
+                total = total.add(order.getTotalAmount());
+            }
+        }
+        List<OrderDto> listed = orders.subList(0, Math.min(orders.size(), DIGEST_MAX_LINES));
 
-            logger.info("Chatwork notification sent for Order ID: {}", order.getId());
+        postMessage("🛒 " + orders.size() + " New Orders Received!",
+                templates.render(NotificationTemplates.CHATWORK_ORDER_DIGEST, Map.of(
+                        "orders", listed, "more", orders.size() - listed.size(), "total", total)));
 
-        } catch (Exception e) {
-            logger.error("Failed to send Chatwork message", e);
-        }
+        logger.info("Chatwork digest sent for {} orders", orders.size());
     }
 
     @Override
     public void sendMonthlyStatistics(DashboardStatsDto stats, int month, int year) {
         try {
-            String url = apiUrl + "/rooms/" + roomId + "/messages";
-            HttpHeaders headers = new HttpHeaders();
-            headers.add("X-ChatWorkToken", apiToken);
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-
-            // Build message with enhanced statistics
-            StringBuilder messageBuilder = new StringBuilder();
-            
-            // Header
-            messageBuilder.append(String.format(
-                "[info][title]📊 Monthly Statistics Report - %02d/%d[/title]", month, year));
-            messageBuilder.append("━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
-            
-            // Revenue section (ONLY from COMPLETED orders IN THIS MONTH)
-            messageBuilder.append(String.format(
-                "💰 Revenue (This Month): $%,.2f\n", stats.getTotalRevenue()));
-            messageBuilder.append(String.format(
-                "📦 Orders (This Month): %,d (Completed: %,d)\n", 
-                stats.getTotalOrders(), stats.getTotalCompletedOrders()));
-            messageBuilder.append(String.format(
-                "🛍️ Total Products: %,d\n", stats.getTotalProducts()));
-            messageBuilder.append(String.format(
-                "👥 Total Users: %,d\n", stats.getTotalUsers()));
-            
-            // Top selling products (IN THIS MONTH)
-            if (stats.getTopProducts() != null && !stats.getTopProducts().isEmpty()) {
-                messageBuilder.append("\n🏆 TOP PRODUCTS (This Month):\n");
-                int rank = 1;
-                for (DashboardStatsDto.TopProductDto product : stats.getTopProducts()) {
-                    messageBuilder.append(String.format(
-                        "   %d. %s - %,d sold ($%,.2f)\n",
-                        rank++, product.getProductName(), 
-                        product.getQuantitySold(), product.getRevenue()));
-                }
-            }
-            
-            // Top customers (IN THIS MONTH)
-            if (stats.getTopCustomers() != null && !stats.getTopCustomers().isEmpty()) {
-                messageBuilder.append("\n⭐ TOP CUSTOMERS (This Month):\n");
-                int rank = 1;
-                for (DashboardStatsDto.TopCustomerDto customer : stats.getTopCustomers()) {
-                    messageBuilder.append(String.format(
-                        "   %d. %s - %,d orders ($%,.2f)\n",
-                        rank++, customer.getCustomerName(), 
-                        customer.getOrderCount(), customer.getTotalSpent()));
-                }
-            }
-            
-            // Footer
-            messageBuilder.append("━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
-            messageBuilder.append(String.format(
-                "Generated: %s[/info]",
-                java.time.LocalDateTime.now().format(
-                    java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))));
-
-            MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
-            map.add("body", messageBuilder.toString());
-
-            HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(map, headers);
-
-            restTemplate.postForObject(url, request, String.class);
+            postMessage("📊 Monthly Statistics Report - " + YearMonth.of(year, month).format(MONTH_FORMATTER),
+                    templates.render(NotificationTemplates.CHATWORK_MONTHLY_STATISTICS, Map.of(
+                            "stats", stats, "generatedAt", LocalDateTime.now())));
 
             logger.info("Monthly statistics sent to Chatwork for {}/{}", month, year);
 
@@ -133,4 +101,18 @@ public class ChatworkServiceImpl implements ChatworkService {
             logger.error("Failed to send monthly statistics to Chatwork", e);
         }
     }
+
+    private void postMessage(String title, String body) {
+        String url = apiUrl + "/rooms/" + roomId + "/messages";
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-ChatWorkToken", apiToken);
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+        MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
+        map.add("body", "[info][title]" + title + "[/title]" + body.stripTrailing() + "[/info]");
+
+        HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(map, headers);
+
+        restTemplate.postForObject(url, request, String.class);
+    }
 }
\ No newline at end of file
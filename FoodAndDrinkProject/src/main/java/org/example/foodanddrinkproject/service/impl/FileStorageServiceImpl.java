@@ -1,5 +1,7 @@
 package org.example.foodanddrinkproject.service.impl;
 
+import org.example.foodanddrinkproject.media.ImageType;
+import org.example.foodanddrinkproject.media.ImageVariants;
 import org.example.foodanddrinkproject.service.FileStorageService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,62 +10,112 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 @Service
 public class FileStorageServiceImpl implements FileStorageService {
 
     private static final Logger logger = LoggerFactory.getLogger(FileStorageServiceImpl.class);
     
+    // Copy buffer; the part is never held in memory as a whole
+    private static final int BUFFER_SIZE = 8192;
+
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
+    @Value("${app.upload.max-bytes:5242880}")
+    private long maxBytes;
+
+    private final ImageVariants imageVariants;
+
+    public FileStorageServiceImpl(ImageVariants imageVariants) {
+        this.imageVariants = imageVariants;
+    }
+
     @Override
     public String storeFile(MultipartFile file, String subDirectory) {
         if (file == null || file.isEmpty()) {
             return null;
         }
 
+        Path temp = null;
         try {
-            // Validate file type
-            String contentType = file.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                throw new IllegalArgumentException("Only image files are allowed");
-            }
-
-            // Get file extension
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-
-            // Generate unique filename
-            String newFilename = UUID.randomUUID().toString() + extension;
-
             // Create directory if not exists
             Path uploadPath = Paths.get(uploadDir, subDirectory);
             if (!Files.exists(uploadPath)) {
                 Files.createDirectories(uploadPath);
             }
 
-            // Save file
-            Path filePath = uploadPath.resolve(newFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            // Stream the part to a temporary file next to its destination,
+            // sniffing the type from the first bytes and hashing as we go
+            temp = Files.createTempFile(uploadPath, "upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ImageType type;
+            try (InputStream in = file.getInputStream();
+                 OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int headerLength = in.readNBytes(buffer, 0, ImageType.HEADER_LENGTH);
+                // Validate file type by content; the client's content type and name are not trusted
+                type = ImageType.sniff(buffer, headerLength);
+                if (type == null) {
+                    throw new IllegalArgumentException("Only image files are allowed");
+                }
+
+                long total = headerLength;
+                digest.update(buffer, 0, headerLength);
+                out.write(buffer, 0, headerLength);
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    total += read;
+                    if (total > maxBytes) {
+                        throw new IllegalArgumentException("File is larger than " + maxBytes + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
 
-            // Return relative URL path
+            // Name the file after its content, so an identical upload reuses the stored copy
+            String newFilename = HexFormat.of().formatHex(digest.digest()) + type.getExtension();
+            Path filePath = uploadPath.resolve(newFilename);
             String relativePath = "/" + uploadDir + "/" + subDirectory + "/" + newFilename;
+
+            if (Files.exists(filePath)) {
+                logger.info("Identical file already stored: {}", relativePath);
+                return relativePath;
+            }
+            Files.move(temp, filePath, StandardCopyOption.ATOMIC_MOVE);
             logger.info("File stored successfully: {}", relativePath);
-            
+
+            // Thumbnail, card and detail sizes are built in the background
+            imageVariants.generateLater(relativePath);
+
             return relativePath;
 
-        } catch (IOException e) {
+        } catch (IOException | NoSuchAlgorithmException e) {
             logger.error("Failed to store file", e);
             throw new RuntimeException("Failed to store file: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            logger.warn("Could not delete temporary upload {}", temp);
         }
     }
 }
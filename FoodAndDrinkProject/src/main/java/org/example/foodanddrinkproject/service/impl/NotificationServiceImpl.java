@@ -1,26 +1,29 @@
 package org.example.foodanddrinkproject.service.impl;
 
-import java.time.format.DateTimeFormatter;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
+import org.example.foodanddrinkproject.dto.NotificationPayload;
 import org.example.foodanddrinkproject.dto.OrderDto;
-import org.example.foodanddrinkproject.dto.OrderItemDto;
+import org.example.foodanddrinkproject.enums.NotificationType;
+import org.example.foodanddrinkproject.notification.MailBatchSender;
+import org.example.foodanddrinkproject.notification.NotificationTemplates;
 import org.example.foodanddrinkproject.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 @Service
 public class NotificationServiceImpl implements NotificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationServiceImpl.class);
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
     
-    private final JavaMailSender mailSender;
+    private final MailBatchSender mailBatchSender;
+    private final NotificationTemplates templates;
     
     @Value("${spring.mail.from:noreply@foodanddrink.com}")
     private String fromEmail;
@@ -28,167 +31,95 @@ public class NotificationServiceImpl implements NotificationService {
     @Value("${app.admin.email:admin@foodanddrink.com}")
     private String adminEmail;
 
-    public NotificationServiceImpl(@Autowired(required = false) JavaMailSender mailSender) {
-        this.mailSender = mailSender;
-        if (mailSender == null) {
+    public NotificationServiceImpl(MailBatchSender mailBatchSender, NotificationTemplates templates) {
+        this.mailBatchSender = mailBatchSender;
+        this.templates = templates;
+        if (!mailBatchSender.isEnabled()) {
             logger.warn("JavaMailSender not configured - email notifications will be disabled");
         }
     }
 
-    @Async("asyncExecutor")
     @Override
-    public void sendOrderConfirmationEmail(OrderDto order) {
-        if (mailSender == null) {
-            logger.info("Email disabled - skipping order confirmation email for Order ID: {}", order.getId());
+    public void sendAdminDigest(List<OrderDto> orders) {
+        if (!mailBatchSender.isEnabled()) {
+            logger.info("Email disabled - skipping admin digest for {} orders", orders.size());
             return;
         }
-        try {
-            logger.info("Sending order confirmation email asynchronously to user: {}", order.getUserEmail());
-            
-            String emailContent = buildOrderConfirmationEmail(order);
-            
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(order.getUserEmail());
-            message.setSubject("Order Confirmation - Order #" + order.getId());
-            message.setText(emailContent);
-            
-            mailSender.send(message);
-            
-            logger.info("Order confirmation email sent successfully to {}", order.getUserEmail());
-            
-        } catch (Exception e) {
-            logger.error("Failed to send order confirmation email for Order ID: {}", order.getId(), e);
-        }
+        logger.info("Sending admin digest email for {} orders", orders.size());
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(adminEmail);
+        message.setSubject("🛒 New Order Alert - " + orders.size() + " new orders");
+        message.setText(templates.render(NotificationTemplates.ADMIN_ORDER_DIGEST, Map.of(
+                "orders", orders, "total", total(orders))));
+
+        sendOne(message);
+
+        logger.info("Admin digest email sent successfully for {} orders", orders.size());
     }
 
-    @Async("asyncExecutor")
     @Override
-    public void sendOrderStatusUpdateEmail(OrderDto order, String oldStatus, String newStatus) {
-        if (mailSender == null) {
-            logger.info("Email disabled - skipping status update email for Order ID: {}", order.getId());
-            return;
-        }
-        try {
-            logger.info("Sending order status update email asynchronously to user: {}", order.getUserEmail());
-            
-            String emailContent = buildOrderStatusUpdateEmail(order, oldStatus, newStatus);
-            
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(order.getUserEmail());
-            message.setSubject("Order Status Update - Order #" + order.getId());
-            message.setText(emailContent);
-            
-            mailSender.send(message);
-            
-            logger.info("Order status update email sent successfully to {}", order.getUserEmail());
-            
-        } catch (Exception e) {
-            logger.error("Failed to send status update email for Order ID: {}", order.getId(), e);
-        }
+    public SimpleMailMessage buildEmail(NotificationType type, NotificationPayload payload) {
+        return switch (type) {
+            case ORDER_CONFIRMATION -> buildOrderConfirmationMessage(payload.getOrder());
+            case ORDER_STATUS_UPDATE -> buildOrderStatusUpdateMessage(
+                    payload.getOrder(), payload.getOldStatus(), payload.getNewStatus());
+            case ADMIN_ORDER_ALERT -> buildAdminMessage(payload.getOrder());
+            default -> throw new IllegalArgumentException("Not an email notification: " + type);
+        };
     }
 
-    @Async("asyncExecutor")
     @Override
-    public void sendAdminNotification(OrderDto order) {
-        if (mailSender == null) {
-            logger.info("Email disabled - skipping admin notification for Order ID: {}", order.getId());
-            return;
-        }
-        try {
-            logger.info("Sending admin notification email asynchronously for Order ID: {}", order.getId());
-            
-            String notificationContent = buildAdminNotification(order);
-            
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(adminEmail);
-            message.setSubject("🛒 New Order Alert - Order #" + order.getId());
-            message.setText(notificationContent);
-            
-            mailSender.send(message);
-            
-            logger.info("Admin notification email sent successfully for Order ID: {}", order.getId());
-            
-        } catch (Exception e) {
-            logger.error("Failed to send admin notification email for Order ID: {}", order.getId(), e);
-        }
+    public Map<Integer, Exception> sendEmails(List<SimpleMailMessage> messages) {
+        return mailBatchSender.send(messages);
     }
 
-    private String buildOrderConfirmationEmail(OrderDto order) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Dear ").append(order.getUserEmail()).append(",\n\n");
-        sb.append("Thank you for your order!\n\n");
-        sb.append("Order Details:\n");
-        sb.append("Order ID: #").append(order.getId()).append("\n");
-        if (order.getOrderDate() != null) {
-            sb.append("Order Date: ").append(order.getOrderDate().format(DATE_FORMATTER)).append("\n");
+    private static BigDecimal total(List<OrderDto> orders) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderDto order : orders) {
+            if (order.getTotalAmount() != null) {
+                total = total.add(order.getTotalAmount());
+            }
         }
-        sb.append("Status: ").append(order.getOrderStatus()).append("\n");
-        sb.append("Payment Method: ").append(order.getPaymentMethod()).append("\n");
-        sb.append("Shipping Address: ").append(order.getShippingAddress()).append("\n\n");
-        
-        sb.append("Items:\n");
-        for (OrderItemDto item : order.getItems()) {
-            sb.append("- ").append(item.getProductName())
-              .append(" x").append(item.getQuantity())
-              .append(" - $").append(item.getPriceAtPurchase())
-              .append("\n");
-        }
-        
-        sb.append("\nSubtotal: $").append(order.getSubtotal()).append("\n");
-        sb.append("Shipping: $").append(order.getShippingCost()).append("\n");
-        sb.append("Discount: -$").append(order.getDiscountAmount()).append("\n");
-        sb.append("Total: $").append(order.getTotalAmount()).append("\n\n");
-        
-        sb.append("We will send you another email when your order is shipped.\n\n");
-        sb.append("Best regards,\n");
-        sb.append("Food & Drink Project Team");
-        
-        return sb.toString();
+        return total;
     }
 
-    private String buildOrderStatusUpdateEmail(OrderDto order, String oldStatus, String newStatus) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Dear Customer,\n\n");
-        sb.append("Your order status has been updated!\n\n");
-        sb.append("Order ID: #").append(order.getId()).append("\n");
-        sb.append("Previous Status: ").append(oldStatus).append("\n");
-        sb.append("New Status: ").append(newStatus).append("\n");
-        if (order.getUpdatedAt() != null) {
-            sb.append("Updated At: ").append(order.getUpdatedAt().format(DATE_FORMATTER)).append("\n\n");
-        } else {
-            sb.append("\n");
+    private void sendOne(SimpleMailMessage message) {
+        Exception failure = mailBatchSender.send(List.of(message)).get(0);
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
         }
-        
-        if ("SHIPPED".equals(newStatus)) {
-            sb.append("Your order is on its way! You should receive it soon.\n");
-        } else if ("DELIVERED".equals(newStatus)) {
-            sb.append("Your order has been delivered! Enjoy your meal!\n");
-        } else if ("CANCELLED".equals(newStatus)) {
-            sb.append("Your order has been cancelled. If you did not request this, please contact us.\n");
+        if (failure != null) {
+            throw new MailSendException("Failed to send email", failure);
         }
-        
-        sb.append("\nBest regards,\n");
-        sb.append("Food & Drink Project Team");
-        
-        return sb.toString();
     }
 
-    private String buildAdminNotification(OrderDto order) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("🛒 New Order Alert!\n\n");
-        sb.append("Order ID: #").append(order.getId()).append("\n");
-        sb.append("Customer: ").append(order.getUserEmail()).append("\n");
-        sb.append("Total Amount: $").append(order.getTotalAmount()).append("\n");
-        sb.append("Payment Method: ").append(order.getPaymentMethod()).append("\n");
-        sb.append("Payment Status: ").append(order.getPaymentStatus()).append("\n");
-        sb.append("Items Count: ").append(order.getItems().size()).append("\n");
-        if (order.getOrderDate() != null) {
-            sb.append("Created At: ").append(order.getOrderDate().format(DATE_FORMATTER)).append("\n");
-        }
-        
-        return sb.toString();
+    private SimpleMailMessage buildOrderConfirmationMessage(OrderDto order) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(order.getUserEmail());
+        message.setSubject("Order Confirmation - Order #" + order.getId());
+        message.setText(templates.render(NotificationTemplates.ORDER_CONFIRMATION, Map.of("order", order)));
+        return message;
+    }
+
+    private SimpleMailMessage buildOrderStatusUpdateMessage(OrderDto order, String oldStatus, String newStatus) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(order.getUserEmail());
+        message.setSubject("Order Status Update - Order #" + order.getId());
+        message.setText(templates.render(NotificationTemplates.ORDER_STATUS_UPDATE, Map.of(
+                "order", order, "oldStatus", oldStatus, "newStatus", newStatus)));
+        return message;
+    }
+
+    private SimpleMailMessage buildAdminMessage(OrderDto order) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(adminEmail);
+        message.setSubject("🛒 New Order Alert - Order #" + order.getId());
+        message.setText(templates.render(NotificationTemplates.ADMIN_ORDER_ALERT, Map.of("order", order)));
+        return message;
     }
 }
@@ -1,14 +1,20 @@
 package org.example.foodanddrinkproject.service.impl;
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.example.foodanddrinkproject.cache.ActiveCartCache;
 import org.example.foodanddrinkproject.dto.AdminUpdateOrderRequest;
+import org.example.foodanddrinkproject.dto.CartLineView;
+import org.example.foodanddrinkproject.dto.CursorPage;
 import org.example.foodanddrinkproject.dto.OrderDto;
 import org.example.foodanddrinkproject.dto.OrderItemDto;
+import org.example.foodanddrinkproject.dto.OrderSummaryDto;
 import org.example.foodanddrinkproject.dto.PlaceOrderRequest;
 import org.example.foodanddrinkproject.entity.Cart;
-import org.example.foodanddrinkproject.entity.CartItem;
 import org.example.foodanddrinkproject.entity.Order;
 import org.example.foodanddrinkproject.entity.OrderItem;
 import org.example.foodanddrinkproject.entity.Product;
@@ -20,17 +26,20 @@ import org.example.foodanddrinkproject.event.OrderPlacedEvent;
 import org.example.foodanddrinkproject.event.OrderStatusChangedEvent;
 import org.example.foodanddrinkproject.exception.BadRequestException;
 import org.example.foodanddrinkproject.exception.ResourceNotFoundException;
+import org.example.foodanddrinkproject.inventory.StockReservation;
 import org.example.foodanddrinkproject.repository.AddressRepository;
+import org.example.foodanddrinkproject.repository.CartItemRepository;
 import org.example.foodanddrinkproject.repository.CartRepository;
 import org.example.foodanddrinkproject.repository.OrderRepository;
-import org.example.foodanddrinkproject.repository.ProductRepository;
 import org.example.foodanddrinkproject.repository.UserRepository;
 import org.example.foodanddrinkproject.repository.specification.OrderSpecification;
 import org.example.foodanddrinkproject.entity.Address;
 import java.util.StringJoiner;
 import org.example.foodanddrinkproject.service.OrderService;
+import org.example.foodanddrinkproject.util.KeysetCursor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -41,20 +50,26 @@ public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
     private final CartRepository cartRepository;
-    private final ProductRepository productRepository;
+    private final CartItemRepository cartItemRepository;
+    private final ActiveCartCache activeCartCache;
+    private final StockReservation stockReservation;
     private final UserRepository userRepository;
     private final AddressRepository addressRepository;
     private final ApplicationEventPublisher eventPublisher;
 
     public OrderServiceImpl(OrderRepository orderRepository,
                             CartRepository cartRepository,
-                            ProductRepository productRepository,
+                            CartItemRepository cartItemRepository,
+                            ActiveCartCache activeCartCache,
+                            StockReservation stockReservation,
                             UserRepository userRepository,
                             AddressRepository addressRepository,
                             ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.cartRepository = cartRepository;
-        this.productRepository = productRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.activeCartCache = activeCartCache;
+        this.stockReservation = stockReservation;
         this.userRepository = userRepository;
         this.addressRepository = addressRepository;
         this.eventPublisher = eventPublisher;
@@ -63,13 +78,18 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     public OrderDto placeOrder(Long userId, PlaceOrderRequest request) {
+        // Write pending in-memory cart changes in this transaction so checkout sees them
+        activeCartCache.flush(userId);
+
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
 
         Cart cart = cartRepository.findByUserIdAndStatus(userId, CartStatus.ACTIVE)
                 .orElseThrow(() -> new BadRequestException("No active cart found. Please add items to cart first."));
 
-        if (cart.getItems().isEmpty()) {
+        // Cart lines with their prices in one query, reused for stock and totals
+        List<CartLineView> lines = cartItemRepository.findLinesByCartId(cart.getId());
+        if (lines.isEmpty()) {
             throw new BadRequestException("Cart is empty. Cannot place order.");
         }
 
@@ -86,31 +106,24 @@ public class OrderServiceImpl implements OrderService {
         order.setOrderStatus(OrderStatus.PENDING);
         order.setPaymentStatus(PaymentStatus.PENDING);
 
-        BigDecimal subtotal = BigDecimal.ZERO;
-
-        for (CartItem cartItem : cart.getItems()) {
-            Product product = productRepository.findByIdWithLock(cartItem.getProduct().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", cartItem.getProduct().getId()));
-
-            if (product.getStockQuantity() < cartItem.getQuantity()) {
-                throw new BadRequestException("Sorry, product '" + product.getName() +
-                        "' is out of stock. Available: " + product.getStockQuantity());
-            }
+        // Quantities per product; a product appears once even if the cart had duplicates
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (CartLineView line : lines) {
+            quantities.merge(line.productId(), line.quantity(), Integer::sum);
+        }
+        Map<Long, Product> products = stockReservation.reserve(quantities);
 
-            product.setStockQuantity(product.getStockQuantity() - cartItem.getQuantity());
-            productRepository.save(product);
+        BigDecimal subtotal = BigDecimal.ZERO;
 
+        for (CartLineView line : lines) {
             OrderItem orderItem = new OrderItem();
-            orderItem.setProduct(product);
-            orderItem.setQuantity(cartItem.getQuantity());
-
-            BigDecimal effectivePrice = product.getDiscountPrice() != null
-                    ? product.getDiscountPrice() : product.getPrice();
-            orderItem.setPriceAtPurchase(effectivePrice); 
+            orderItem.setProduct(products.get(line.productId()));
+            orderItem.setQuantity(line.quantity());
+            orderItem.setPriceAtPurchase(line.unitPrice()); 
 
             order.addItem(orderItem);
 
-            subtotal = subtotal.add(effectivePrice.multiply(BigDecimal.valueOf(cartItem.getQuantity())));
+            subtotal = subtotal.add(line.subtotal());
         }
 
         order.setSubtotal(subtotal);
@@ -124,6 +137,7 @@ public class OrderServiceImpl implements OrderService {
 
         cart.setStatus(CartStatus.CHECKED_OUT);
         cartRepository.save(cart);
+        activeCartCache.evictAfterCommit(userId, cart.getId(), lines);
 
         OrderDto orderDto = convertToDto(savedOrder);
 
@@ -133,15 +147,30 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getMyOrders(Long userId) {
-        return orderRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+        return orderRepository.findWithDetailsByUserId(userId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummaryDto> getMyOrderHistory(Long userId, String cursor, int size) {
+        int limit = CursorPage.clampSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable firstRows = PageRequest.of(0, limit + 1);
+
+        List<OrderSummaryDto> rows = after == null
+                ? orderRepository.findSummariesByUserId(userId, firstRows)
+                : orderRepository.findSummariesByUserIdAfter(userId, after.createdAt(), after.id(), firstRows);
+        return CursorPage.of(rows, limit, o -> new KeysetCursor(o.createdAt(), o.id()), Function.identity());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public OrderDto getOrderById(Long userId, Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithDetailsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
 
         if (!order.getUser().getId().equals(userId)) {
@@ -151,20 +180,54 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderDto getOrderByIdForAdmin(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithDetailsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
         return convertToDto(order);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderDto> getAllOrders(OrderStatus status, Long userId, Pageable pageable) {
         Specification<Order> spec =
                 OrderSpecification.hasStatus(status)
                 .and(OrderSpecification.hasUserId(userId));
 
-        return orderRepository.findAll(spec, pageable)
-                .map(this::convertToDto);
+        Page<Order> orders = orderRepository.findAll(spec, pageable);
+        loadItems(orders.getContent());
+        return orders.map(this::convertToDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> getAllOrders(OrderStatus status, Long userId, String cursor, int size) {
+        int limit = CursorPage.clampSize(size);
+        Specification<Order> spec =
+                OrderSpecification.hasStatus(status)
+                .and(OrderSpecification.hasUserId(userId))
+                .and(KeysetCursor.after(KeysetCursor.decode(cursor)));
+
+        List<Order> orders = orderRepository.findBy(spec, query -> query
+                .project("user")
+                .sortBy(KeysetCursor.ORDER)
+                .limit(limit + 1)
+                .all());
+        loadItems(orders);
+        return CursorPage.of(orders, limit, o -> new KeysetCursor(o.getCreatedAt(), o.getId()), this::convertToDto);
+    }
+
+    /**
+     * Fetches items and products for a page of orders in one query instead of
+     * one query per order and per item. Must run in the same session as the
+     * query that loaded the orders.
+     */
+    private void loadItems(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<Long> ids = orders.stream().map(Order::getId).collect(Collectors.toList());
+        orderRepository.findWithItemsByIdIn(ids);
     }
 
     @Override
@@ -270,13 +333,14 @@ public class OrderServiceImpl implements OrderService {
     }
 
     private void restoreStock(Order order) {
+        Map<Long, Integer> quantities = new HashMap<>();
         for (OrderItem item : order.getItems()) {
             Product product = item.getProduct();
             if (product != null) { 
-                product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
-                productRepository.save(product);
+                quantities.merge(product.getId(), item.getQuantity(), Integer::sum);
             }
         }
+        stockReservation.release(quantities);
     }
 
     private OrderDto convertToDto(Order order) {
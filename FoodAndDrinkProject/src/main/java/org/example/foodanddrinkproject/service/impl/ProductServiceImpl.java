@@ -1,24 +1,41 @@
 package org.example.foodanddrinkproject.service.impl;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import jakarta.validation.Valid;
+import org.example.foodanddrinkproject.cache.ProductCatalogCache;
 import org.example.foodanddrinkproject.dto.ProductDto;
 import org.example.foodanddrinkproject.dto.ProductRequest;
 import org.example.foodanddrinkproject.entity.Category;
 import org.example.foodanddrinkproject.entity.Product;
 import org.example.foodanddrinkproject.enums.ProductType;
+import org.example.foodanddrinkproject.event.ProductChangedEvent;
 import org.example.foodanddrinkproject.exception.BadRequestException;
 import org.example.foodanddrinkproject.exception.ResourceNotFoundException;
+import org.example.foodanddrinkproject.inventory.HotStockLedger;
+import org.example.foodanddrinkproject.media.ImageVariant;
+import org.example.foodanddrinkproject.media.ImageVariants;
 import org.example.foodanddrinkproject.repository.CategoryRepository;
 import org.example.foodanddrinkproject.repository.ProductRepository;
 import org.example.foodanddrinkproject.repository.specification.ProductSpecification;
+import org.example.foodanddrinkproject.search.ProductSearchIndex;
 import org.example.foodanddrinkproject.service.ProductService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 @Service
 public class ProductServiceImpl implements ProductService {
@@ -26,33 +43,124 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final ProductSpecification productSpecification;
     private final CategoryRepository categoryRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductCatalogCache catalogCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageVariants imageVariants;
+    private final HotStockLedger stockLedger;
 
     public ProductServiceImpl(ProductRepository productRepository,
                               ProductSpecification productSpecification,
-                              CategoryRepository categoryRepository) {
+                              CategoryRepository categoryRepository,
+                              ProductSearchIndex productSearchIndex,
+                              ProductCatalogCache catalogCache,
+                              ApplicationEventPublisher eventPublisher,
+                              ImageVariants imageVariants,
+                              HotStockLedger stockLedger) {
         this.productRepository = productRepository;
         this.productSpecification = productSpecification;
         this.categoryRepository = categoryRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.catalogCache = catalogCache;
+        this.eventPublisher = eventPublisher;
+        this.imageVariants = imageVariants;
+        this.stockLedger = stockLedger;
     }
+
+    // Listing order when there is neither a text query nor a requested sort
+    private static final Sort DEFAULT_SORT = Sort.by("name");
+    // Largest set of search matches sent to the database as an IN list
+    private static final int MAX_MATCH_ID_LIST = 1000;
+
+    // Cache key for one /api/products query
+    private record ProductQuery(String name, String brand, Integer categoryId, ProductType type,
+                                BigDecimal minPrice, BigDecimal maxPrice, Double minRating,
+                                Pageable pageable) {
+    }
+
     @Override
     public Page<ProductDto> getAllProducts(
             String name, String brand, Integer categoryId, ProductType type,
             BigDecimal minPrice, BigDecimal maxPrice, Double minRating,
             Pageable pageable
+    ) {
+        ProductQuery query = new ProductQuery(name, brand, categoryId, type, minPrice, maxPrice, minRating, pageable);
+        boolean stockDependent = pageable.getSort().getOrderFor("stockQuantity") != null;
+        boolean ratingDependent = minRating != null || pageable.getSort().getOrderFor("avgRating") != null;
+        return catalogCache.getPage(query, stockDependent, ratingDependent, key -> searchProducts(
+                name, brand, categoryId, type, minPrice, maxPrice, minRating, pageable));
+    }
+
+    private Page<ProductDto> searchProducts(
+            String name, String brand, Integer categoryId, ProductType type,
+            BigDecimal minPrice, BigDecimal maxPrice, Double minRating,
+            Pageable pageable
     ) {
         Specification<Product> spec =
                 productSpecification.isActive()
-                        .and(productSpecification.hasName(name))
-                        .and(productSpecification.hasBrand(brand))
                         .and(productSpecification.hasCategory(categoryId))
                         .and(productSpecification.hasType(type))
                         .and(productSpecification.priceBetween(minPrice, maxPrice))
                         .and(productSpecification.ratingGreaterThanOrEqual(minRating));
 
+        boolean textQuery = StringUtils.hasText(name) || StringUtils.hasText(brand);
+        if (textQuery && productSearchIndex.isReady()) {
+            boolean filtered = categoryId != null || type != null
+                    || minPrice != null || maxPrice != null || minRating != null;
+            return pageMatches(productSearchIndex.search(name, brand), spec, filtered, pageable);
+        }
+        // Index still loading at startup: fall back to LIKE predicates
+        spec = spec.and(productSpecification.hasName(name))
+                .and(productSpecification.hasBrand(brand));
+        if (!textQuery && pageable.isPaged() && pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), DEFAULT_SORT);
+        }
+
         Page<Product> productsPage = productRepository.findAll(spec, pageable);
         return productsPage.map(this::convertToDto);
     }
 
+    // Pages text search matches from the index (best first unless a sort is requested)
+    // and loads only the products on the requested page
+    private Page<ProductDto> pageMatches(List<Long> rankedIds, Specification<Product> filters,
+                                         boolean filtered, Pageable pageable) {
+        List<Long> ids = rankedIds;
+        Sort sort = pageable.getSort();
+        if (!rankedIds.isEmpty() && (filtered || sort.isSorted())) {
+            // Filter first, then keep the matches: a few matches go to the database as an
+            // id list, many are intersected here with the ids passing the filters
+            List<Long> filteredIds = rankedIds.size() <= MAX_MATCH_ID_LIST
+                    ? productRepository.findIds(filters.and(productSpecification.hasIdIn(rankedIds)), sort)
+                    : productRepository.findIds(filters, sort);
+            if (sort.isSorted()) {
+                Set<Long> matches = new HashSet<>(rankedIds);
+                ids = filteredIds.stream().filter(matches::contains).toList();
+            } else {
+                Set<Long> kept = new HashSet<>(filteredIds);
+                ids = rankedIds.stream().filter(kept::contains).toList();
+            }
+        }
+
+        List<Long> pageIds = ids;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), ids.size());
+            pageIds = ids.subList(from, Math.min(from + pageable.getPageSize(), ids.size()));
+        }
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.size());
+        }
+
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAll(productSpecification.hasIdIn(pageIds))
+                .forEach(product -> products.put(product.getId(), product));
+        List<ProductDto> content = pageIds.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDto)
+                .toList();
+        return new PageImpl<>(content, pageable, ids.size());
+    }
+
     @Override
     public Page<ProductDto> getAllProductsAdmin(
             String name, Integer categoryId, ProductType type,
@@ -72,9 +180,13 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public ProductDto getProductById(Long productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
-        return convertToDto(product);
+        ProductDto product = catalogCache.getProduct(productId, id -> productRepository.findWithCategoryById(id)
+                .map(this::convertToDto)
+                .orElse(null));
+        if (product == null) {
+            throw new ResourceNotFoundException("Product", "id", productId);
+        }
+        return product;
     }
 
     @Override
@@ -107,13 +219,21 @@ public class ProductServiceImpl implements ProductService {
         product.setActive(Boolean.TRUE.equals(request.getIsActive()));
 
         Product savedProduct = productRepository.save(product);
-        return convertToDto(savedProduct);
+        ProductDto productDto = convertToDto(savedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                this, savedProduct.getId(), ProductChangedEvent.ChangeType.CREATED, productDto));
+        return productDto;
     }
 
     @Override
     @Transactional
     public ProductDto updateProduct(Long productId, ProductRequest request) {
-        Product product = productRepository.findById(productId)
+        // The ledger flush writes stock_quantity of hot products concurrently; lock the row
+        // so the stock read here is current and the write below cannot undo a flush
+        boolean ledgerManaged = stockLedger.isManaged(productId);
+        Product product = (ledgerManaged
+                ? productRepository.findAllByIdInWithLock(List.of(productId)).stream().findFirst()
+                : productRepository.findById(productId))
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
 
         Category category = categoryRepository.findById(request.getCategoryId())
@@ -134,6 +254,9 @@ public class ProductServiceImpl implements ProductService {
         product.setProductType(request.getProductType());
         product.setCategory(category);
         if (request.getStockQuantity() != null) {
+            if (ledgerManaged) {
+                stockLedger.stockSet(productId, product.getStockQuantity(), request.getStockQuantity());
+            }
             product.setStockQuantity(request.getStockQuantity());
         }
         if (request.getIsActive() != null) {
@@ -141,7 +264,10 @@ public class ProductServiceImpl implements ProductService {
         }
 
         Product updatedProduct = productRepository.save(product);
-        return convertToDto(updatedProduct);
+        ProductDto productDto = convertToDto(updatedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                this, updatedProduct.getId(), ProductChangedEvent.ChangeType.UPDATED, productDto));
+        return productDto;
     }
 
     @Override
@@ -151,6 +277,8 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
 
         productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                this, productId, ProductChangedEvent.ChangeType.DELETED, null));
     }
 
     @Override
@@ -161,7 +289,10 @@ public class ProductServiceImpl implements ProductService {
 
         product.setActive(!product.isActive());
         Product updatedProduct = productRepository.save(product);
-        return convertToDto(updatedProduct);
+        ProductDto productDto = convertToDto(updatedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                this, updatedProduct.getId(), ProductChangedEvent.ChangeType.UPDATED, productDto));
+        return productDto;
     }
 
     private ProductDto convertToDto(Product product) {
@@ -172,6 +303,9 @@ public class ProductServiceImpl implements ProductService {
         dto.setPrice(product.getPrice());
         dto.setDiscountPrice(product.getDiscountPrice());
         dto.setImageUrl(product.getImageUrl());
+        dto.setThumbnailUrl(imageVariants.url(product.getImageUrl(), ImageVariant.THUMBNAIL));
+        dto.setCardImageUrl(imageVariants.url(product.getImageUrl(), ImageVariant.CARD));
+        dto.setDetailImageUrl(imageVariants.url(product.getImageUrl(), ImageVariant.DETAIL));
         dto.setSku(product.getSku());
         dto.setBrand(product.getBrand());
         dto.setWeight(product.getWeight());
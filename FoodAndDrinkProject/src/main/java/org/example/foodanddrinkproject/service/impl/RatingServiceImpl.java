@@ -1,33 +1,53 @@
 package org.example.foodanddrinkproject.service.impl;
 
+import org.example.foodanddrinkproject.cache.RatingSummaryCache;
 import org.example.foodanddrinkproject.dto.CreateRatingRequest;
+import org.example.foodanddrinkproject.dto.CursorPage;
 import org.example.foodanddrinkproject.dto.ProductRatingSummaryDto;
+import org.example.foodanddrinkproject.dto.RatingAggregate;
 import org.example.foodanddrinkproject.dto.RatingDto;
 import org.example.foodanddrinkproject.entity.Product;
+import org.example.foodanddrinkproject.entity.ProductRatingStats;
 import org.example.foodanddrinkproject.entity.Rating;
 import org.example.foodanddrinkproject.entity.User;
+import org.example.foodanddrinkproject.event.ProductChangedEvent;
+import org.example.foodanddrinkproject.repository.ProductRatingStatsRepository;
 import org.example.foodanddrinkproject.repository.ProductRepository;
 import org.example.foodanddrinkproject.repository.RatingRepository;
 import org.example.foodanddrinkproject.repository.UserRepository;
 import org.example.foodanddrinkproject.service.RatingService;
+import org.example.foodanddrinkproject.util.KeysetCursor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 public class RatingServiceImpl implements RatingService {
 
     private final RatingRepository ratingRepository;
+    private final ProductRatingStatsRepository statsRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RatingSummaryCache ratingSummaryCache;
 
     public RatingServiceImpl(RatingRepository ratingRepository,
+                             ProductRatingStatsRepository statsRepository,
                              ProductRepository productRepository,
-                             UserRepository userRepository) {
+                             UserRepository userRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             RatingSummaryCache ratingSummaryCache) {
         this.ratingRepository = ratingRepository;
+        this.statsRepository = statsRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.ratingSummaryCache = ratingSummaryCache;
     }
 
     @Override
@@ -44,10 +64,14 @@ public class RatingServiceImpl implements RatingService {
     }
 
     @Override
+    @Transactional
     public void deleteRating(Long id) {
-        if (ratingRepository.existsById(id)) {
-            ratingRepository.deleteById(id);
-        }
+        ratingRepository.findById(id).ifPresent(rating -> {
+            Long productId = rating.getProduct().getId();
+            int value = rating.getRatingValue();
+            ratingRepository.delete(rating);
+            applyRatingChange(productId, value, 0);
+        });
     }
 
     @Override
@@ -56,13 +80,32 @@ public class RatingServiceImpl implements RatingService {
                 .map(this::toRatingDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<RatingDto> getRatings(Long productId, String cursor, int size) {
+        int limit = CursorPage.clampSize(size);
+        Specification<Rating> spec = KeysetCursor.after(KeysetCursor.decode(cursor));
+        if (productId != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("product").get("id"), productId));
+        }
+
+        List<Rating> ratings = ratingRepository.findBy(spec, query -> query
+                .project("user")
+                .sortBy(KeysetCursor.ORDER)
+                .limit(limit + 1)
+                .all());
+        return CursorPage.of(ratings, limit, r -> new KeysetCursor(r.getCreatedAt(), r.getId()), this::toRatingDto);
+    }
+
     @Override
     public ProductRatingSummaryDto getProductRatingSummary(Long productId, Long userId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        
-        Page<Rating> allRatings = ratingRepository.findByProductId(productId, Pageable.unpaged());
-        long totalReviews = allRatings.getTotalElements();
+        // The stats row is the source; the aggregate query covers products it does not have yet
+        RatingAggregate aggregate = ratingSummaryCache.get(productId, id -> statsRepository.findById(id)
+                .map(ProductRatingStats::toAggregate)
+                .orElseGet(() -> productRepository.existsById(id) ? ratingRepository.aggregateByProductId(id) : null));
+        if (aggregate == null) {
+            throw new RuntimeException("Product not found");
+        }
         
         // Get user's own rating if userId is provided
         RatingDto userRating = null;
@@ -74,8 +117,9 @@ public class RatingServiceImpl implements RatingService {
         
         return ProductRatingSummaryDto.builder()
                 .productId(productId)
-                .averageRating(product.getAvgRating())
-                .totalReviews(totalReviews)
+                .averageRating(aggregate.average())
+                .totalReviews(aggregate.count())
+                .starDistribution(aggregate.distribution())
                 .userRating(userRating)
                 .build();
     }
@@ -92,6 +136,7 @@ public class RatingServiceImpl implements RatingService {
         // Check if user already rated this product - update if exists
         Rating rating = ratingRepository.findByUserIdAndProductId(userId, productId)
                 .orElse(new Rating());
+        int previousValue = rating.getId() != null ? rating.getRatingValue() : 0;
         
         rating.setUser(user);
         rating.setProduct(product);
@@ -100,20 +145,29 @@ public class RatingServiceImpl implements RatingService {
         
         Rating savedRating = ratingRepository.save(rating);
         
-        // Update product average rating
-        updateProductAverageRating(product);
+        // Update product rating aggregates and average
+        applyRatingChange(productId, previousValue, savedRating.getRatingValue());
         
         return toRatingDto(savedRating);
     }
     
-    private void updateProductAverageRating(Product product) {
-        Page<Rating> ratings = ratingRepository.findByProductId(product.getId(), Pageable.unpaged());
-        double avgRating = ratings.getContent().stream()
-                .mapToInt(Rating::getRatingValue)
-                .average()
-                .orElse(0.0);
-        product.setAvgRating(avgRating);
-        productRepository.save(product);
+    /**
+     * Moves one rating from removedValue stars to addedValue stars, where 0
+     * means none (a new or a deleted rating). Atomic increments, so
+     * concurrent ratings of the same product never lose an update.
+     */
+    private void applyRatingChange(Long productId, int removedValue, int addedValue) {
+        long[] stars = new long[6];
+        stars[removedValue]--;
+        stars[addedValue]++;
+        long count = (addedValue > 0 ? 1 : 0) - (removedValue > 0 ? 1 : 0);
+        // A missing stats row is seeded from the ratings table, which must already hold this change
+        ratingRepository.flush();
+        statsRepository.addDeltas(productId, count, addedValue - removedValue,
+                stars[1], stars[2], stars[3], stars[4], stars[5]);
+        statsRepository.refreshAverage(productId);
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                this, productId, ProductChangedEvent.ChangeType.RATING, null));
     }
     
     private RatingDto toRatingDto(Rating rating) {
@@ -1,31 +1,41 @@
 package org.example.foodanddrinkproject.service.impl;
 
 import org.example.foodanddrinkproject.dto.ChangePasswordRequest;
+import org.example.foodanddrinkproject.dto.CursorPage;
 import org.example.foodanddrinkproject.dto.UpdateProfileRequest;
 import org.example.foodanddrinkproject.dto.UserProfileDto;
 import org.example.foodanddrinkproject.entity.User;
 import org.example.foodanddrinkproject.enums.AuthProvider;
+import org.example.foodanddrinkproject.event.UserChangedEvent;
 import org.example.foodanddrinkproject.exception.BadRequestException;
 import org.example.foodanddrinkproject.exception.ResourceNotFoundException;
 import org.example.foodanddrinkproject.repository.UserRepository;
 import org.example.foodanddrinkproject.service.UserService;
+import org.example.foodanddrinkproject.util.KeysetCursor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final org.example.foodanddrinkproject.repository.RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserServiceImpl(UserRepository userRepository, org.example.foodanddrinkproject.repository.RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, org.example.foodanddrinkproject.repository.RoleRepository roleRepository, PasswordEncoder passwordEncoder,
+                           ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -47,6 +57,7 @@ public class UserServiceImpl implements UserService {
         user.setPhoneNumber(request.getPhoneNumber());
 
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(this, userId));
         return mapToUserProfileDto(updatedUser);
     }
 
@@ -79,6 +90,7 @@ public class UserServiceImpl implements UserService {
 
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(this, userId));
     }
 
     @Override
@@ -87,6 +99,18 @@ public class UserServiceImpl implements UserService {
                 .map(this::convertToDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserProfileDto> getAllUsers(String cursor, int size) {
+        int limit = CursorPage.clampSize(size);
+        Specification<User> spec = KeysetCursor.after(KeysetCursor.decode(cursor));
+        List<User> users = userRepository.findBy(spec, query -> query
+                .sortBy(KeysetCursor.ORDER)
+                .limit(limit + 1)
+                .all());
+        return CursorPage.of(users, limit, u -> new KeysetCursor(u.getCreatedAt(), u.getId()), this::convertToDto);
+    }
+
     @Override
     @Transactional
     public void banUser(Long userId, boolean isEnabled) {
@@ -96,6 +120,7 @@ public class UserServiceImpl implements UserService {
         // Prevent banning yourself (Admin safety)
         user.setEnabled(isEnabled);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(this, userId));
     }
 
     @Override
@@ -124,6 +149,7 @@ public class UserServiceImpl implements UserService {
          
          user.setEnabled(request.isEnabled());
          userRepository.save(user);
+         eventPublisher.publishEvent(new UserChangedEvent(this, userId));
     }
 
     @Override
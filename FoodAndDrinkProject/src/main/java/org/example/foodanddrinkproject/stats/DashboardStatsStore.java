@@ -0,0 +1,429 @@
+package org.example.foodanddrinkproject.stats;
+
+import org.example.foodanddrinkproject.dto.DashboardStatsDto;
+import org.example.foodanddrinkproject.dto.OrderDto;
+import org.example.foodanddrinkproject.dto.OrderItemDto;
+import org.example.foodanddrinkproject.enums.OrderStatus;
+import org.example.foodanddrinkproject.event.OrderPlacedEvent;
+import org.example.foodanddrinkproject.event.OrderStatusChangedEvent;
+import org.example.foodanddrinkproject.event.ProductChangedEvent;
+import org.example.foodanddrinkproject.repository.OrderRepository;
+import org.example.foodanddrinkproject.repository.ProductRepository;
+import org.example.foodanddrinkproject.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Materialized dashboard statistics. Seeded from SQL at startup, then kept up
+ * to date from order and product events so that the dashboard does not scan
+ * the orders/order_items history on every load. DashboardStatsReconciliationScheduler
+ * reloads it from SQL once a day and logs any drift; the user count, which
+ * has no events, is refreshed separately.
+ */
+@Component
+public class DashboardStatsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsStore.class);
+
+    public static final int TOP_K = 5;
+    private static final int DAILY_RETENTION_DAYS = 31;
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("MM/dd");
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+
+    private final TransactionTemplate loadTemplate;
+
+    // Serializes loads; taken before lock, never while holding it
+    private final Object loadLock = new Object();
+    private final Object lock = new Object();
+    // Guarded by lock; null until the first load
+    private Aggregates aggregates;
+    // Guarded by lock; non-null while a load runs, collects the updates to replay onto its result
+    private List<Consumer<Aggregates>> pendingUpdates;
+
+    public DashboardStatsStore(OrderRepository orderRepository,
+                               ProductRepository productRepository,
+                               UserRepository userRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        // All queries of a load read one consistent snapshot
+        this.loadTemplate = new TransactionTemplate(transactionManager);
+        this.loadTemplate.setReadOnly(true);
+        this.loadTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    /**
+     * Reloads every counter from SQL and replaces the in-memory state.
+     * Events that commit while the queries run are replayed onto the result,
+     * so only an event whose transaction committed in the moment between the
+     * start of the load and its snapshot can be counted twice.
+     */
+    public void reconcile() {
+        synchronized (loadLock) {
+            load();
+        }
+    }
+
+    /**
+     * Refreshes the user count, which is not maintained from events.
+     */
+    public void refreshUserCount() {
+        long totalUsers = userRepository.count();
+        synchronized (lock) {
+            if (aggregates != null) {
+                aggregates.totalUsers = totalUsers;
+            }
+        }
+    }
+
+    /**
+     * Fills the counters, status breakdown, 7-day trend and top-K lists of the given DTO.
+     */
+    public void fill(DashboardStatsDto stats, int days) {
+        ensureLoaded();
+        synchronized (lock) {
+            Aggregates a = aggregates;
+
+            stats.setTotalProducts(a.totalProducts);
+            stats.setTotalUsers(a.totalUsers);
+            stats.setTotalOrders(a.totalOrders);
+            stats.setTotalRevenue(a.completedRevenue);
+            stats.setTotalCompletedOrders(a.count(OrderStatus.COMPLETED));
+            stats.setPendingOrders(a.count(OrderStatus.PENDING));
+            stats.setProcessingOrders(a.count(OrderStatus.PROCESSING));
+            stats.setCancelledOrders(a.count(OrderStatus.CANCELLED));
+
+            List<DashboardStatsDto.DailyStatsDto> dailyStats = new ArrayList<>();
+            a.daily.tailMap(LocalDate.now().minusDays(days), true).forEach((day, bucket) -> {
+                DashboardStatsDto.DailyStatsDto dto = new DashboardStatsDto.DailyStatsDto();
+                dto.setDate(day.format(DAY_FORMATTER));
+                dto.setOrderCount(bucket.orderCount);
+                dto.setRevenue(bucket.revenue);
+                dailyStats.add(dto);
+            });
+            stats.setDailyStats(dailyStats);
+
+            List<DashboardStatsDto.TopProductDto> topProducts = new ArrayList<>();
+            for (ProductSales sales : a.topProducts.items()) {
+                DashboardStatsDto.TopProductDto dto = new DashboardStatsDto.TopProductDto();
+                dto.setProductName(sales.productName);
+                dto.setQuantitySold(sales.quantitySold);
+                dto.setRevenue(sales.revenue);
+                topProducts.add(dto);
+            }
+            stats.setTopProducts(topProducts);
+
+            List<DashboardStatsDto.TopCustomerDto> topCustomers = new ArrayList<>();
+            for (CustomerSpend spend : a.topCustomers.items()) {
+                DashboardStatsDto.TopCustomerDto dto = new DashboardStatsDto.TopCustomerDto();
+                dto.setCustomerName(spend.customerName);
+                dto.setCustomerEmail(spend.customerEmail);
+                dto.setOrderCount(spend.orderCount);
+                dto.setTotalSpent(spend.totalSpent);
+                topCustomers.add(dto);
+            }
+            stats.setTopCustomers(topCustomers);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        OrderDto order = event.getOrderDto();
+        LocalDate day = order.getOrderDate() != null ? order.getOrderDate().toLocalDate() : LocalDate.now();
+        apply(a -> {
+            a.totalOrders++;
+            a.increment(order.getOrderStatus(), 1);
+            a.addDaily(day, 1, order.getTotalAmount());
+            a.pruneDaily();
+            if (order.getOrderStatus() == OrderStatus.COMPLETED) {
+                a.addCompleted(order);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        OrderStatus oldStatus = OrderStatus.valueOf(event.getOldStatus());
+        OrderStatus newStatus = OrderStatus.valueOf(event.getNewStatus());
+        apply(a -> {
+            a.increment(oldStatus, -1);
+            a.increment(newStatus, 1);
+            // Completed orders are final, so completion is only ever counted once
+            if (newStatus == OrderStatus.COMPLETED) {
+                a.addCompleted(event.getOrderDto());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getChangeType() == ProductChangedEvent.ChangeType.CREATED) {
+            apply(a -> a.totalProducts++);
+        } else if (event.getChangeType() == ProductChangedEvent.ChangeType.DELETED) {
+            apply(a -> a.totalProducts--);
+        }
+    }
+
+    // Applies the update to the current state and, while a load runs, records it for replay.
+    // Updates arriving before the first load starts are dropped; that load reads them from SQL.
+    private void apply(Consumer<Aggregates> update) {
+        synchronized (lock) {
+            if (aggregates != null) {
+                update.accept(aggregates);
+            }
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        synchronized (lock) {
+            if (aggregates != null) {
+                return;
+            }
+        }
+        synchronized (loadLock) {
+            synchronized (lock) {
+                if (aggregates != null) {
+                    return;
+                }
+            }
+            load();
+        }
+    }
+
+    // Callers hold loadLock
+    private void load() {
+        long start = System.currentTimeMillis();
+        synchronized (lock) {
+            pendingUpdates = new ArrayList<>();
+        }
+        try {
+            Aggregates truth = loadTemplate.execute(status -> loadFromDatabase());
+            int replayed;
+            synchronized (lock) {
+                pendingUpdates.forEach(update -> update.accept(truth));
+                replayed = pendingUpdates.size();
+                if (aggregates != null) {
+                    logDrift(aggregates, truth);
+                }
+                aggregates = truth;
+            }
+            logger.info("Dashboard statistics loaded in {} ms, {} concurrent updates replayed",
+                    System.currentTimeMillis() - start, replayed);
+        } finally {
+            synchronized (lock) {
+                pendingUpdates = null;
+            }
+        }
+    }
+
+    private Aggregates loadFromDatabase() {
+        Aggregates a = new Aggregates();
+        a.totalProducts = productRepository.count();
+        a.totalUsers = userRepository.count();
+        a.totalOrders = orderRepository.count();
+        for (OrderStatus status : OrderStatus.values()) {
+            Long count = orderRepository.countByOrderStatus(status);
+            a.ordersByStatus.put(status, count != null ? count : 0L);
+        }
+        BigDecimal revenue = orderRepository.sumTotalAmount();
+        a.completedRevenue = revenue != null ? revenue : BigDecimal.ZERO;
+
+        LocalDateTime dailyStart = LocalDate.now().minusDays(DAILY_RETENTION_DAYS).atStartOfDay();
+        for (Object[] row : orderRepository.findDailyStats(dailyStart)) {
+            a.addDaily(toLocalDate(row[0]), ((Number) row[1]).longValue(), (BigDecimal) row[2]);
+        }
+
+        for (Object[] row : orderRepository.findProductSalesTotals()) {
+            ProductSales sales = new ProductSales((Long) row[0], (String) row[1]);
+            sales.quantitySold = ((Number) row[2]).longValue();
+            sales.revenue = (BigDecimal) row[3];
+            a.productSales.put(sales.productId, sales);
+            a.topProducts.offer(sales);
+        }
+
+        for (Object[] row : orderRepository.findCustomerSpendTotals()) {
+            CustomerSpend spend = new CustomerSpend((Long) row[0], (String) row[1], (String) row[2]);
+            spend.orderCount = ((Number) row[3]).longValue();
+            spend.totalSpent = (BigDecimal) row[4];
+            a.customerSpend.put(spend.userId, spend);
+            a.topCustomers.offer(spend);
+        }
+        return a;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        }
+        return LocalDate.parse(value.toString());
+    }
+
+    private static void logDrift(Aggregates current, Aggregates truth) {
+        if (current.totalOrders != truth.totalOrders
+                || !current.ordersByStatus.equals(truth.ordersByStatus)
+                || current.completedRevenue.compareTo(truth.completedRevenue) != 0
+                || current.totalProducts != truth.totalProducts) {
+            logger.warn("Dashboard statistics drifted from SQL - orders: {} vs {}, by status: {} vs {}, " +
+                            "revenue: {} vs {}, products: {} vs {}",
+                    current.totalOrders, truth.totalOrders,
+                    current.ordersByStatus, truth.ordersByStatus,
+                    current.completedRevenue, truth.completedRevenue,
+                    current.totalProducts, truth.totalProducts);
+        }
+    }
+
+    private static final class Aggregates {
+        private long totalOrders;
+        private long totalProducts;
+        private long totalUsers;
+        private BigDecimal completedRevenue = BigDecimal.ZERO;
+        private final EnumMap<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        private final TreeMap<LocalDate, DailyBucket> daily = new TreeMap<>();
+        private final Map<Long, ProductSales> productSales = new HashMap<>();
+        private final Map<Long, CustomerSpend> customerSpend = new HashMap<>();
+        private final TopK<ProductSales> topProducts =
+                new TopK<>(Comparator.comparingLong(p -> p.quantitySold));
+        private final TopK<CustomerSpend> topCustomers =
+                new TopK<>(Comparator.comparing(c -> c.totalSpent));
+
+        private long count(OrderStatus status) {
+            return ordersByStatus.getOrDefault(status, 0L);
+        }
+
+        private void increment(OrderStatus status, long delta) {
+            ordersByStatus.merge(status, delta, Long::sum);
+        }
+
+        private void addDaily(LocalDate day, long orders, BigDecimal revenue) {
+            DailyBucket bucket = daily.computeIfAbsent(day, d -> new DailyBucket());
+            bucket.orderCount += orders;
+            bucket.revenue = bucket.revenue.add(revenue != null ? revenue : BigDecimal.ZERO);
+        }
+
+        private void pruneDaily() {
+            daily.headMap(LocalDate.now().minusDays(DAILY_RETENTION_DAYS)).clear();
+        }
+
+        private void addCompleted(OrderDto order) {
+            BigDecimal total = order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+            completedRevenue = completedRevenue.add(total);
+
+            if (order.getItems() != null) {
+                for (OrderItemDto item : order.getItems()) {
+                    ProductSales sales = productSales.computeIfAbsent(item.getProductId(),
+                            id -> new ProductSales(id, item.getProductName()));
+                    sales.quantitySold += item.getQuantity();
+                    sales.revenue = sales.revenue.add(item.getSubtotal());
+                    topProducts.offer(sales);
+                }
+            }
+
+            if (order.getUserId() != null) {
+                CustomerSpend spend = customerSpend.computeIfAbsent(order.getUserId(),
+                        id -> new CustomerSpend(id, order.getUserName(), order.getUserEmail()));
+                spend.orderCount++;
+                spend.totalSpent = spend.totalSpent.add(total);
+                topCustomers.offer(spend);
+            }
+        }
+    }
+
+    /**
+     * Keeps the K largest items. Only valid because every tracked value grows
+     * monotonically: an item outside the top K can enter it only through its
+     * own update, which always goes through offer().
+     */
+    private static final class TopK<T> {
+        private final Comparator<T> descending;
+        private final List<T> top = new ArrayList<>(TOP_K + 1);
+
+        private TopK(Comparator<T> ascending) {
+            this.descending = ascending.reversed();
+        }
+
+        private void offer(T item) {
+            boolean present = top.stream().anyMatch(t -> t == item);
+            if (!present) {
+                if (top.size() >= TOP_K && descending.compare(item, top.get(top.size() - 1)) >= 0) {
+                    return;
+                }
+                top.add(item);
+            }
+            top.sort(descending);
+            if (top.size() > TOP_K) {
+                top.remove(top.size() - 1);
+            }
+        }
+
+        private List<T> items() {
+            return top;
+        }
+    }
+
+    private static final class DailyBucket {
+        private long orderCount;
+        private BigDecimal revenue = BigDecimal.ZERO;
+    }
+
+    private static final class ProductSales {
+        private final Long productId;
+        private final String productName;
+        private long quantitySold;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private ProductSales(Long productId, String productName) {
+            this.productId = productId;
+            this.productName = productName;
+        }
+    }
+
+    private static final class CustomerSpend {
+        private final Long userId;
+        private final String customerName;
+        private final String customerEmail;
+        private long orderCount;
+        private BigDecimal totalSpent = BigDecimal.ZERO;
+
+        private CustomerSpend(Long userId, String customerName, String customerEmail) {
+            this.userId = userId;
+            this.customerName = customerName;
+            this.customerEmail = customerEmail;
+        }
+    }
+}
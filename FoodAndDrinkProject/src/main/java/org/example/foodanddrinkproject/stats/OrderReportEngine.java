@@ -0,0 +1,167 @@
+package org.example.foodanddrinkproject.stats;
+
+import org.example.foodanddrinkproject.dto.DashboardStatsDto;
+import org.example.foodanddrinkproject.enums.OrderStatus;
+import org.example.foodanddrinkproject.repository.OrderRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * Computes the report for an arbitrary [start, end) period in a single pass
+ * over the period's order lines: revenue, total/completed order counts and
+ * the top-N products and customers of completed orders.
+ * Rows are streamed from the database, so memory depends on the number of
+ * distinct products and customers in the period, not on the number of orders.
+ */
+@Component
+public class OrderReportEngine {
+
+    private final OrderRepository orderRepository;
+
+    public OrderReportEngine(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public DashboardStatsDto report(LocalDateTime start, LocalDateTime end, int topN) {
+        Report report = new Report();
+        try (Stream<Object[]> rows = orderRepository.streamReportRows(start, end)) {
+            Iterator<Object[]> it = rows.iterator();
+            while (it.hasNext()) {
+                report.accept(it.next());
+            }
+        }
+
+        DashboardStatsDto stats = new DashboardStatsDto();
+        stats.setTotalRevenue(report.revenue);
+        stats.setTotalOrders(report.totalOrders);
+        stats.setTotalCompletedOrders(report.completedOrders);
+        stats.setTopProducts(top(report.products.values(),
+                Comparator.comparingLong((ProductSales p) -> p.quantitySold), topN).stream()
+                .map(ProductSales::toDto)
+                .toList());
+        stats.setTopCustomers(top(report.customers.values(),
+                Comparator.comparing((CustomerSpend c) -> c.totalSpent), topN).stream()
+                .map(CustomerSpend::toDto)
+                .toList());
+        return stats;
+    }
+
+    /**
+     * Returns the n largest items, largest first, keeping at most n + 1
+     * candidates in a min-heap.
+     */
+    private static <T> List<T> top(Collection<T> items, Comparator<T> ascending, int n) {
+        if (n <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<T> heap = new PriorityQueue<>(n + 1, ascending);
+        for (T item : items) {
+            heap.offer(item);
+            if (heap.size() > n) {
+                heap.poll();
+            }
+        }
+        List<T> result = new ArrayList<>(heap);
+        result.sort(ascending.reversed());
+        return result;
+    }
+
+    /**
+     * Accumulator fed with rows of OrderRepository.streamReportRows. Rows of
+     * one order are adjacent, so order-level figures are counted once when
+     * the order id changes.
+     */
+    private static final class Report {
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long totalOrders;
+        private long completedOrders;
+        private final Map<Long, ProductSales> products = new HashMap<>();
+        private final Map<Long, CustomerSpend> customers = new HashMap<>();
+
+        private Long currentOrderId;
+        private boolean currentCompleted;
+
+        private void accept(Object[] row) {
+            Long orderId = (Long) row[0];
+            if (!orderId.equals(currentOrderId)) {
+                currentOrderId = orderId;
+                currentCompleted = row[1] == OrderStatus.COMPLETED;
+                startOrder(row);
+            }
+            if (currentCompleted && row[6] != null) {
+                ProductSales sales = products.computeIfAbsent((Long) row[6], id -> new ProductSales((String) row[7]));
+                int quantity = (Integer) row[8];
+                sales.quantitySold += quantity;
+                sales.revenue = sales.revenue.add(((BigDecimal) row[9]).multiply(BigDecimal.valueOf(quantity)));
+            }
+        }
+
+        private void startOrder(Object[] row) {
+            totalOrders++;
+            if (!currentCompleted) {
+                return;
+            }
+            completedOrders++;
+            BigDecimal amount = (BigDecimal) row[2];
+            revenue = revenue.add(amount);
+            if (row[3] != null) {
+                CustomerSpend spend = customers.computeIfAbsent((Long) row[3],
+                        id -> new CustomerSpend((String) row[4], (String) row[5]));
+                spend.orderCount++;
+                spend.totalSpent = spend.totalSpent.add(amount);
+            }
+        }
+    }
+
+    private static final class ProductSales {
+        private final String name;
+        private long quantitySold;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private ProductSales(String name) {
+            this.name = name;
+        }
+
+        private DashboardStatsDto.TopProductDto toDto() {
+            DashboardStatsDto.TopProductDto dto = new DashboardStatsDto.TopProductDto();
+            dto.setProductName(name);
+            dto.setQuantitySold(quantitySold);
+            dto.setRevenue(revenue);
+            return dto;
+        }
+    }
+
+    private static final class CustomerSpend {
+        private final String name;
+        private final String email;
+        private long orderCount;
+        private BigDecimal totalSpent = BigDecimal.ZERO;
+
+        private CustomerSpend(String name, String email) {
+            this.name = name;
+            this.email = email;
+        }
+
+        private DashboardStatsDto.TopCustomerDto toDto() {
+            DashboardStatsDto.TopCustomerDto dto = new DashboardStatsDto.TopCustomerDto();
+            dto.setCustomerName(name);
+            dto.setCustomerEmail(email);
+            dto.setOrderCount(orderCount);
+            dto.setTotalSpent(totalSpent);
+            return dto;
+        }
+    }
+}
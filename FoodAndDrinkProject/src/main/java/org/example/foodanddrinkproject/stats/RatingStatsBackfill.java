@@ -0,0 +1,38 @@
+package org.example.foodanddrinkproject.stats;
+
+import org.example.foodanddrinkproject.repository.ProductRatingStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Creates product_rating_stats rows for products whose ratings predate the
+ * table. Runs once at startup and is a no-op once every rated product has
+ * its row. Ratings written before it runs are safe: addDeltas seeds a missing
+ * row from the ratings table instead of starting it from the delta.
+ */
+@Component
+public class RatingStatsBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingStatsBackfill.class);
+
+    private final ProductRatingStatsRepository statsRepository;
+
+    public RatingStatsBackfill(ProductRatingStatsRepository statsRepository) {
+        this.statsRepository = statsRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        int created = statsRepository.backfillMissing();
+        if (created > 0) {
+            // Also repairs averages left stale by rating deletions, which used not to recalculate
+            int products = statsRepository.refreshAllAverages();
+            logger.info("Backfilled rating stats for {} products, refreshed {} averages", created, products);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.foodanddrinkproject.util;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A MySQL named lock (GET_LOCK) marking the one application instance allowed
+ * to keep some state in memory. It is held on a connection kept out of the
+ * pool until release(); the lock belongs to that session, so it also goes
+ * away when the process dies.
+ */
+public final class InstanceLock {
+
+    private final String name;
+    private final Connection connection;
+
+    private InstanceLock(String name, Connection connection) {
+        this.name = name;
+        this.connection = connection;
+    }
+
+    /**
+     * @return the lock, or null when another session already holds it
+     */
+    public static InstanceLock tryAcquire(DataSource dataSource, String name) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, name);
+            try (ResultSet result = statement.executeQuery()) {
+                if (result.next() && result.getInt(1) == 1) {
+                    return new InstanceLock(name, connection);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        connection.close();
+        return null;
+    }
+
+    /**
+     * Releases the lock explicitly before the connection goes back to the
+     * pool, where the session (and a lock it still held) would live on.
+     */
+    public void release() throws SQLException {
+        try (connection; PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, name);
+            statement.executeQuery().close();
+        }
+    }
+}
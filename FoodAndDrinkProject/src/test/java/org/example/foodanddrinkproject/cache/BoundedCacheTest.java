@@ -0,0 +1,127 @@
+package org.example.foodanddrinkproject.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedCacheTest {
+
+    @Test
+    void loadedValueIsCachedAndCounted() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("a", k -> "A" + loads.incrementAndGet())).isEqualTo("A1");
+        assertThat(cache.get("a", k -> "A" + loads.incrementAndGet())).isEqualTo("A1");
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void nullFromTheLoaderIsNotCached() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+        assertThat(cache.get("a", k -> null)).isNull();
+        assertThat(cache.get("a", k -> "A")).isEqualTo("A");
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+
+        cache.put("c", "C");
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("A");
+        assertThat(cache.get("c")).isEqualTo("C");
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void entryExpiresAfterWrite() throws InterruptedException {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMillis(50));
+        cache.put("a", "A");
+        assertThat(cache.get("a")).isEqualTo("A");
+
+        Thread.sleep(80);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void invalidateIfRemovesMatchingEntries() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        cache.invalidateIf((key, value) -> value % 2 == 1);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo(2);
+        assertThat(cache.get("c")).isNull();
+    }
+
+    @Test
+    void loadInvalidatedWhileRunningIsNotStored() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+        String loaded = cache.get("a", k -> {
+            cache.invalidate("a");
+            return "stale";
+        });
+
+        assertThat(loaded).isEqualTo("stale");
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void loadSurvivesInvalidationsOfOtherKeys() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+        cache.get("a", k -> {
+            cache.invalidate("b");
+            cache.invalidateIf((key, value) -> key.startsWith("x"));
+            return "A";
+        });
+
+        assertThat(cache.get("a")).isEqualTo("A");
+    }
+
+    @Test
+    void loadIsDiscardedAfterInvalidateAll() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+        cache.get("a", k -> {
+            cache.invalidateAll();
+            return "stale";
+        });
+
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void loadIsDiscardedWhenTooManyInvalidationsToCheck() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+        cache.get("a", k -> {
+            // More than the cache remembers; the forgotten ones might have covered "a"
+            for (int i = 0; i < 100; i++) {
+                cache.invalidate("other" + i);
+            }
+            return "A";
+        });
+
+        assertThat(cache.get("a")).isNull();
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.foodanddrinkproject.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.foodanddrinkproject.dto.ProductDto;
+import org.example.foodanddrinkproject.event.ImageVariantsGeneratedEvent;
+import org.example.foodanddrinkproject.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCatalogCacheTest {
+
+    private ProductCatalogCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductCatalogCache(new SimpleMeterRegistry(), 100, 100, 60);
+    }
+
+    @Test
+    void stockEventDropsOnlyPagesShowingTheProduct() {
+        load("page-a", false, 1L, 2L);
+        load("page-b", false, 3L, 4L);
+        loads.set(0);
+
+        cache.onProductChanged(event(2L, ProductChangedEvent.ChangeType.STOCK));
+
+        load("page-a", false, 1L, 2L);
+        load("page-b", false, 3L, 4L);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void stockEventDropsStockSortedPagesWithoutTheProduct() {
+        load("by-stock", true, 3L, 4L);
+        loads.set(0);
+
+        cache.onProductChanged(event(2L, ProductChangedEvent.ChangeType.STOCK));
+
+        load("by-stock", true, 3L, 4L);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void otherProductWritesDropEveryPage() {
+        load("page-a", false, 1L, 2L);
+        load("page-b", false, 3L, 4L);
+        loads.set(0);
+
+        cache.onProductChanged(event(9L, ProductChangedEvent.ChangeType.CREATED));
+
+        load("page-a", false, 1L, 2L);
+        load("page-b", false, 3L, 4L);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void imageVariantsDropOnlyTheProductsShowingTheImage() {
+        load("page-a", false, 1L, 2L);
+        load("page-b", false, 3L, 4L);
+        loads.set(0);
+        AtomicInteger productLoads = new AtomicInteger();
+        cache.getProduct(4L, id -> dto(id, productLoads));
+        cache.getProduct(5L, id -> dto(id, productLoads));
+
+        cache.onImageVariantsGenerated(new ImageVariantsGeneratedEvent(this, "/uploads/products/a.jpg", List.of(2L, 5L)));
+
+        load("page-a", false, 1L, 2L);
+        load("page-b", false, 3L, 4L);
+        cache.getProduct(4L, id -> dto(id, productLoads));
+        cache.getProduct(5L, id -> dto(id, productLoads));
+        assertThat(loads).hasValue(1);
+        assertThat(productLoads).hasValue(3);
+    }
+
+    private void load(String query, boolean stockDependent, Long... ids) {
+        cache.getPage(query, stockDependent, false, key -> {
+            loads.incrementAndGet();
+            return page(ids);
+        });
+    }
+
+    private static ProductDto dto(Long id, AtomicInteger loads) {
+        loads.incrementAndGet();
+        ProductDto dto = new ProductDto();
+        dto.setId(id);
+        return dto;
+    }
+
+    private static Page<ProductDto> page(Long... ids) {
+        return new PageImpl<>(Arrays.stream(ids).map(id -> {
+            ProductDto dto = new ProductDto();
+            dto.setId(id);
+            return dto;
+        }).toList());
+    }
+
+    private ProductChangedEvent event(Long productId, ProductChangedEvent.ChangeType type) {
+        return new ProductChangedEvent(this, productId, type, null);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.foodanddrinkproject.media;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageTypeTest {
+
+    @Test
+    void recognisesEverySupportedFormat() {
+        assertThat(sniff(bytes(0xFF, 0xD8, 0xFF, 0xE0))).isEqualTo(ImageType.JPEG);
+        assertThat(sniff(bytes(0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'))).isEqualTo(ImageType.PNG);
+        assertThat(sniff(ascii("GIF87a"))).isEqualTo(ImageType.GIF);
+        assertThat(sniff(ascii("GIF89a"))).isEqualTo(ImageType.GIF);
+        assertThat(sniff(ascii("RIFF\0\0\0\0WEBP"))).isEqualTo(ImageType.WEBP);
+        assertThat(sniff(ascii("BM"))).isEqualTo(ImageType.BMP);
+    }
+
+    @Test
+    void riffContainerThatIsNotWebpIsRejected() {
+        assertThat(sniff(ascii("RIFF\0\0\0\0WAVE"))).isNull();
+    }
+
+    @Test
+    void otherContentIsRejected() {
+        assertThat(sniff(ascii("<svg xmlns="))).isNull();
+        assertThat(sniff(ascii("%PDF-1.7"))).isNull();
+        assertThat(sniff(ascii("GIF90a"))).isNull();
+        assertThat(sniff(new byte[0])).isNull();
+    }
+
+    @Test
+    void onlyTheBytesReadAreConsidered() {
+        byte[] header = Arrays.copyOf(bytes(0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'), ImageType.HEADER_LENGTH);
+
+        assertThat(ImageType.sniff(header, 8)).isEqualTo(ImageType.PNG);
+        // A truncated file whose buffer happens to hold the rest of the magic
+        assertThat(ImageType.sniff(header, 4)).isNull();
+        assertThat(ImageType.sniff(ascii("RIFF\0\0\0\0WEBP"), 10)).isNull();
+    }
+
+    private static ImageType sniff(byte[] data) {
+        byte[] header = Arrays.copyOf(data, ImageType.HEADER_LENGTH);
+        return ImageType.sniff(header, Math.min(data.length, ImageType.HEADER_LENGTH));
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
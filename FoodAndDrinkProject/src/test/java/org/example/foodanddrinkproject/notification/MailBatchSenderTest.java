@@ -0,0 +1,124 @@
+package org.example.foodanddrinkproject.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.NoSuchProviderException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MailBatchSenderTest {
+
+    private Transport transport;
+    private SimpleMeterRegistry meterRegistry;
+    private MailBatchSender sender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        transport = mock(Transport.class);
+        // JavaMailSenderImpl reconnects before a message when the transport reports it is closed
+        AtomicBoolean connected = new AtomicBoolean();
+        doAnswer(invocation -> {
+            connected.set(true);
+            return null;
+        }).when(transport).connect(anyString(), anyInt(), any(), any());
+        when(transport.isConnected()).thenAnswer(invocation -> connected.get());
+        meterRegistry = new SimpleMeterRegistry();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl() {
+            @Override
+            protected Transport getTransport(Session session) throws NoSuchProviderException {
+                return transport;
+            }
+        };
+        mailSender.setHost("smtp.example.com");
+        sender = new MailBatchSender(mailSender, meterRegistry);
+    }
+
+    @Test
+    void batchIsSentOverOneConnection() throws Exception {
+        Map<Integer, Exception> failures = sender.send(List.of(
+                message("a@example.com"), message("b@example.com"), message("c@example.com")));
+
+        assertThat(failures).isEmpty();
+        verify(transport, times(1)).connect(anyString(), anyInt(), any(), any());
+        verify(transport, times(3)).sendMessage(any(Message.class), any(Address[].class));
+        verify(transport).close();
+        assertThat(counter("mail.smtp.connections")).isEqualTo(1);
+        assertThat(counter("mail.sent")).isEqualTo(3);
+    }
+
+    @Test
+    void failedMessageIsReportedByIndexAndTheRestAreSent() throws Exception {
+        doThrow(new MessagingException("mailbox unavailable"))
+                .when(transport).sendMessage(argThat(sentTo("b@example.com")), any(Address[].class));
+
+        Map<Integer, Exception> failures = sender.send(List.of(
+                message("a@example.com"), message("b@example.com"), message("c@example.com")));
+
+        assertThat(failures).containsOnlyKeys(1);
+        assertThat(failures.get(1)).hasMessage("mailbox unavailable");
+        verify(transport, times(3)).sendMessage(any(Message.class), any(Address[].class));
+        assertThat(counter("mail.sent")).isEqualTo(2);
+        assertThat(counter("mail.failed")).isEqualTo(1);
+    }
+
+    @Test
+    void connectionFailureFailsEveryMessage() throws Exception {
+        doThrow(new AuthenticationFailedException("bad credentials"))
+                .when(transport).connect(anyString(), anyInt(), any(), any());
+
+        Map<Integer, Exception> failures = sender.send(List.of(message("a@example.com"), message("b@example.com")));
+
+        assertThat(failures).containsOnlyKeys(0, 1);
+        verify(transport, never()).sendMessage(any(Message.class), any(Address[].class));
+        assertThat(counter("mail.sent")).isZero();
+        assertThat(counter("mail.failed")).isEqualTo(2);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private static SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@example.com");
+        message.setTo(to);
+        message.setSubject("Order Confirmation");
+        message.setText("Thanks for your order");
+        return message;
+    }
+
+    private static ArgumentMatcher<Message> sentTo(String to) {
+        return message -> {
+            try {
+                return message != null && to.equals(message.getAllRecipients()[0].toString());
+            } catch (MessagingException e) {
+                return false;
+            }
+        };
+    }
+}
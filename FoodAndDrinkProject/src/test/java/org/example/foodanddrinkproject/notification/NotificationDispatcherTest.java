@@ -0,0 +1,145 @@
+package org.example.foodanddrinkproject.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.foodanddrinkproject.dto.NotificationPayload;
+import org.example.foodanddrinkproject.dto.OrderDto;
+import org.example.foodanddrinkproject.entity.NotificationOutboxEntry;
+import org.example.foodanddrinkproject.enums.NotificationStatus;
+import org.example.foodanddrinkproject.enums.NotificationType;
+import org.example.foodanddrinkproject.repository.NotificationOutboxRepository;
+import org.example.foodanddrinkproject.service.ChatworkService;
+import org.example.foodanddrinkproject.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+    private static final long MAX_BACKOFF_SECONDS = 100;
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private ChatworkService chatworkService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new NotificationDispatcher(outboxRepository, notificationService, chatworkService,
+                objectMapper, transactionManager, Runnable::run,
+                50, 20, MAX_ATTEMPTS, INITIAL_BACKOFF_SECONDS, MAX_BACKOFF_SECONDS, 0, 0, 4, 2,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void deliveredNotificationIsMarkedSent() throws Exception {
+        NotificationOutboxEntry entry = claimable(0);
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(1);
+
+        verify(chatworkService).sendOrderNotification(any(OrderDto.class));
+        assertThat(entry.getStatus()).isEqualTo(NotificationStatus.SENT);
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getSentAt()).isNotNull();
+        assertThat(entry.getClaimedAt()).isNull();
+    }
+
+    @Test
+    void failedDeliveryIsRetriedWithExponentialBackoff() throws Exception {
+        doThrow(new IllegalStateException("Chatwork unavailable"))
+                .when(chatworkService).sendOrderNotification(any(OrderDto.class));
+
+        NotificationOutboxEntry first = claimable(0);
+        dispatcher.dispatchBatch();
+        assertRetriedAfter(first, 1, Duration.ofSeconds(INITIAL_BACKOFF_SECONDS));
+
+        NotificationOutboxEntry second = claimable(1);
+        dispatcher.dispatchBatch();
+        assertRetriedAfter(second, 2, Duration.ofSeconds(INITIAL_BACKOFF_SECONDS * 2));
+    }
+
+    @Test
+    void backoffIsCappedAtTheMaximum() throws Exception {
+        doThrow(new IllegalStateException("Chatwork unavailable"))
+                .when(chatworkService).sendOrderNotification(any(OrderDto.class));
+        NotificationOutboxEntry entry = claimable(2);
+
+        dispatcher.dispatchBatch();
+
+        // 30s * 2^2 = 120s is over the 100s cap
+        assertRetriedAfter(entry, 3, Duration.ofSeconds(MAX_BACKOFF_SECONDS));
+    }
+
+    @Test
+    void notificationIsLeftFailedOnceAttemptsAreExhausted() throws Exception {
+        doThrow(new IllegalStateException("Chatwork unavailable"))
+                .when(chatworkService).sendOrderNotification(any(OrderDto.class));
+        NotificationOutboxEntry entry = claimable(MAX_ATTEMPTS - 1);
+        LocalDateTime nextAttemptAt = entry.getNextAttemptAt();
+
+        dispatcher.dispatchBatch();
+
+        assertThat(entry.getStatus()).isEqualTo(NotificationStatus.FAILED);
+        assertThat(entry.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(entry.getLastError()).contains("Chatwork unavailable");
+        assertThat(entry.getNextAttemptAt()).isEqualTo(nextAttemptAt);
+    }
+
+    @Test
+    void emptyOutboxSendsNothing() {
+        when(outboxRepository.findDueForUpdate(any(), any())).thenReturn(List.of());
+
+        assertThat(dispatcher.dispatchBatch()).isZero();
+    }
+
+    private void assertRetriedAfter(NotificationOutboxEntry entry, int attempts, Duration backoff) {
+        assertThat(entry.getStatus()).isEqualTo(NotificationStatus.PENDING);
+        assertThat(entry.getAttempts()).isEqualTo(attempts);
+        assertThat(entry.getLastError()).contains("Chatwork unavailable");
+        assertThat(entry.getClaimedAt()).isNull();
+        assertThat(entry.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plus(backoff), within(Duration.ofSeconds(5)));
+    }
+
+    private NotificationOutboxEntry claimable(int previousAttempts) throws Exception {
+        OrderDto order = new OrderDto();
+        order.setId(7L);
+        NotificationPayload payload = new NotificationPayload();
+        payload.setOrder(order);
+
+        NotificationOutboxEntry entry = new NotificationOutboxEntry();
+        entry.setId(1L);
+        entry.setType(NotificationType.CHATWORK_ORDER);
+        entry.setChannel(NotificationType.CHATWORK_ORDER.getChannel());
+        entry.setPayload(objectMapper.writeValueAsString(payload));
+        entry.setAttempts(previousAttempts);
+        entry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+
+        when(outboxRepository.findDueForUpdate(any(), any())).thenReturn(List.of(entry));
+        when(outboxRepository.findAllById(any())).thenReturn(List.of(entry));
+        return entry;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.foodanddrinkproject.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    @Test
+    void callsAreSpacedByTheRate() throws Exception {
+        RateLimiter limiter = new RateLimiter(20);
+
+        long elapsed = timeMillis(() -> {
+            for (int i = 0; i < 5; i++) {
+                limiter.acquire();
+            }
+        });
+
+        // The first permit is free, the next four wait 50 ms each
+        assertThat(elapsed).isBetween(180L, 1000L);
+    }
+
+    @Test
+    void batchAcquireReservesOneSlotPerPermit() throws Exception {
+        RateLimiter limiter = new RateLimiter(20);
+
+        limiter.acquire(4);
+        long elapsed = timeMillis(limiter::acquire);
+
+        assertThat(elapsed).isBetween(180L, 1000L);
+    }
+
+    @Test
+    void idleTimeRefillsWithoutBuildingABurst() throws Exception {
+        RateLimiter limiter = new RateLimiter(20);
+        limiter.acquire();
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        // Available again immediately after the pause...
+        assertThat(timeMillis(limiter::acquire)).isLessThan(30L);
+        // ...but the idle time is not saved up: the next call waits a full interval again
+        assertThat(timeMillis(limiter::acquire)).isBetween(40L, 500L);
+    }
+
+    @Test
+    void nonPositiveRateDisablesLimiting() throws Exception {
+        RateLimiter limiter = new RateLimiter(0);
+
+        long elapsed = timeMillis(() -> {
+            for (int i = 0; i < 1000; i++) {
+                limiter.acquire();
+            }
+        });
+
+        assertThat(elapsed).isLessThan(100L);
+    }
+
+    private static long timeMillis(Acquisition acquisition) throws InterruptedException {
+        long start = System.nanoTime();
+        acquisition.run();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @FunctionalInterface
+    private interface Acquisition {
+        void run() throws InterruptedException;
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.foodanddrinkproject.search;
+
+import org.example.foodanddrinkproject.dto.ProductDto;
+import org.example.foodanddrinkproject.entity.Product;
+import org.example.foodanddrinkproject.event.ProductChangedEvent;
+import org.example.foodanddrinkproject.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findAll()).thenReturn(List.of(
+                product(1L, "Cà phê sữa đá", "Trung Nguyên", "Vietnamese iced coffee"),
+                product(2L, "Espresso", "Lavazza", "Strong coffee shot"),
+                product(3L, "Trà đào", "Phúc Long", "Peach tea"),
+                product(4L, "Coffee beans", "Trung Nguyên", "Whole beans")));
+        index = new ProductSearchIndex(productRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void tokenizeFoldsCaseAndDiacritics() {
+        assertThat(ProductSearchIndex.tokenize("Cà Phê  Sữa-Đá!")).containsExactly("ca", "phe", "sua", "da");
+        assertThat(ProductSearchIndex.tokenize("  ")).isEmpty();
+        assertThat(ProductSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void queryWithoutDiacriticsMatchesAccentedText() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("ca phe", null)).containsExactly(1L);
+        assertThat(index.search("TRA DAO", null)).containsExactly(3L);
+    }
+
+    @Test
+    void tokensMatchByPrefix() {
+        assertThat(index.search("espr", null)).containsExactly(2L);
+        assertThat(index.search("xpresso", null)).isEmpty();
+    }
+
+    @Test
+    void everyTokenMustMatch() {
+        assertThat(index.search("coffee beans", null)).containsExactly(4L);
+        assertThat(index.search("coffee tea", null)).isEmpty();
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        // Product 4 has "coffee" in its name, 1 and 2 only in the description
+        assertThat(index.search("coffee", null)).containsExactly(4L, 1L, 2L);
+    }
+
+    @Test
+    void brandQueryIntersectsWithNameQuery() {
+        assertThat(index.search(null, "trung")).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(index.search("coffee", "trung nguyen")).containsExactly(4L, 1L);
+        assertThat(index.search("espresso", "trung")).isEmpty();
+        // Description words are not brand words
+        assertThat(index.search(null, "peach")).isEmpty();
+    }
+
+    @Test
+    void updateReplacesTheProductsPostings() {
+        index.onProductChanged(event(2L, ProductChangedEvent.ChangeType.UPDATED,
+                dto(2L, "Cold brew", "Highlands", "Slow steeped")));
+
+        assertThat(index.search("espresso", null)).isEmpty();
+        assertThat(index.search(null, "lavazza")).isEmpty();
+        assertThat(index.search("cold", "highlands")).containsExactly(2L);
+    }
+
+    @Test
+    void createAddsAndDeleteRemovesTheProduct() {
+        index.onProductChanged(event(5L, ProductChangedEvent.ChangeType.CREATED,
+                dto(5L, "Matcha latte", "Phúc Long", null)));
+        assertThat(index.search("matcha", null)).containsExactly(5L);
+        assertThat(index.search(null, "phuc long")).containsExactlyInAnyOrder(3L, 5L);
+
+        index.onProductChanged(event(3L, ProductChangedEvent.ChangeType.DELETED, null));
+        assertThat(index.search("tra", null)).isEmpty();
+        assertThat(index.search(null, "phuc")).containsExactly(5L);
+    }
+
+    @Test
+    void stockAndRatingEventsLeaveTheIndexAlone() {
+        index.onProductChanged(event(1L, ProductChangedEvent.ChangeType.STOCK, null));
+        index.onProductChanged(event(1L, ProductChangedEvent.ChangeType.RATING, null));
+
+        assertThat(index.search("ca phe", null)).containsExactly(1L);
+    }
+
+    @Test
+    void inactiveProductsAreNotSearchable() {
+        ProductDto hidden = dto(2L, "Espresso", "Lavazza", "Strong coffee shot");
+        hidden.setActive(false);
+
+        index.onProductChanged(event(2L, ProductChangedEvent.ChangeType.UPDATED, hidden));
+
+        assertThat(index.search("espresso", null)).isEmpty();
+        assertThat(index.search("coffee", null)).doesNotContain(2L);
+    }
+
+    @Test
+    void eventsDuringRebuildAreNotUndoneBySnapshot() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        ProductSearchIndex rebuilding = new ProductSearchIndex(productRepository);
+        // The snapshot was read before the rename committed
+        when(productRepository.findAll()).thenAnswer(invocation -> {
+            rebuilding.onProductChanged(event(1L, ProductChangedEvent.ChangeType.UPDATED,
+                    dto(1L, "Bạc xỉu", "Trung Nguyên", null)));
+            return List.of(product(1L, "Cà phê sữa đá", "Trung Nguyên", null));
+        });
+
+        rebuilding.rebuild();
+
+        assertThat(rebuilding.search("bac xiu", null)).containsExactly(1L);
+        assertThat(rebuilding.search("ca phe", null)).isEmpty();
+    }
+
+    private static Product product(Long id, String name, String brand, String description) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setBrand(brand);
+        product.setDescription(description);
+        product.setActive(true);
+        return product;
+    }
+
+    private static ProductDto dto(Long id, String name, String brand, String description) {
+        ProductDto dto = new ProductDto();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setBrand(brand);
+        dto.setDescription(description);
+        dto.setActive(true);
+        return dto;
+    }
+
+    private ProductChangedEvent event(Long id, ProductChangedEvent.ChangeType type, ProductDto dto) {
+        return new ProductChangedEvent(this, id, type, dto);
+    }
+}
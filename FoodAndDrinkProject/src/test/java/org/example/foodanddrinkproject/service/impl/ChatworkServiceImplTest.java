@@ -0,0 +1,162 @@
+package org.example.foodanddrinkproject.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.foodanddrinkproject.dto.NotificationPayload;
+import org.example.foodanddrinkproject.dto.OrderDto;
+import org.example.foodanddrinkproject.entity.NotificationOutboxEntry;
+import org.example.foodanddrinkproject.enums.NotificationStatus;
+import org.example.foodanddrinkproject.enums.NotificationType;
+import org.example.foodanddrinkproject.enums.PaymentMethod;
+import org.example.foodanddrinkproject.notification.NotificationDispatcher;
+import org.example.foodanddrinkproject.notification.NotificationTemplates;
+import org.example.foodanddrinkproject.repository.NotificationOutboxRepository;
+import org.example.foodanddrinkproject.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs ChatworkServiceImpl against a local HTTP server standing in for the
+ * Chatwork API, driven through NotificationDispatcher as in production.
+ */
+class ChatworkServiceImplTest {
+
+    private static final long READ_TIMEOUT_MS = 300;
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private volatile long responseDelayMs;
+    private HttpServer server;
+
+    private ChatworkServiceImpl chatworkService;
+    private NotificationOutboxRepository outboxRepository;
+    private NotificationDispatcher dispatcher;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v2/rooms/42/messages", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            requests.add(URLDecoder.decode(body, StandardCharsets.UTF_8));
+            try {
+                Thread.sleep(responseDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = "{\"message_id\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            } catch (IOException e) {
+                // The client gave up waiting
+            }
+        });
+        server.start();
+
+        chatworkService = new ChatworkServiceImpl(new NotificationTemplates("", 60), 1000, READ_TIMEOUT_MS);
+        ReflectionTestUtils.setField(chatworkService, "apiToken", "test-token");
+        ReflectionTestUtils.setField(chatworkService, "roomId", "42");
+        ReflectionTestUtils.setField(chatworkService, "apiUrl",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/v2");
+
+        outboxRepository = mock(NotificationOutboxRepository.class);
+        dispatcher = new NotificationDispatcher(outboxRepository, mock(NotificationService.class), chatworkService,
+                objectMapper, mock(PlatformTransactionManager.class), Runnable::run,
+                50, 20, 8, 30, 3600, 0, 0, 4, 2, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void orderAlertsOfOneBatchAreSentAsOneDigest() throws Exception {
+        List<NotificationOutboxEntry> entries = outboxEntries(101, 102, 103);
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(3);
+
+        assertThat(requests).hasSize(1);
+        assertThat(requests.get(0))
+                .contains("3 New Orders Received!")
+                .contains("#101", "#102", "#103")
+                .contains("Total Amount: $30.00");
+        assertThat(entries).allSatisfy(entry -> assertThat(entry.getStatus()).isEqualTo(NotificationStatus.SENT));
+    }
+
+    @Test
+    void stalledApiCallTimesOut() {
+        responseDelayMs = READ_TIMEOUT_MS * 5;
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> chatworkService.sendOrderDigest(List.of(order(101), order(102))))
+                .isInstanceOf(ResourceAccessException.class);
+
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(responseDelayMs);
+    }
+
+    @Test
+    void timedOutDigestIsRescheduled() throws Exception {
+        responseDelayMs = READ_TIMEOUT_MS * 5;
+        List<NotificationOutboxEntry> entries = outboxEntries(101, 102);
+
+        dispatcher.dispatchBatch();
+
+        assertThat(requests).hasSize(1);
+        assertThat(entries).allSatisfy(entry -> {
+            assertThat(entry.getStatus()).isEqualTo(NotificationStatus.PENDING);
+            assertThat(entry.getAttempts()).isEqualTo(1);
+            assertThat(entry.getNextAttemptAt()).isAfter(LocalDateTime.now());
+            assertThat(entry.getLastError()).isNotNull();
+        });
+    }
+
+    private List<NotificationOutboxEntry> outboxEntries(long... orderIds) throws Exception {
+        List<NotificationOutboxEntry> entries = new ArrayList<>();
+        for (long orderId : orderIds) {
+            NotificationPayload payload = new NotificationPayload();
+            payload.setOrder(order(orderId));
+
+            NotificationOutboxEntry entry = new NotificationOutboxEntry();
+            entry.setId(orderId);
+            entry.setType(NotificationType.CHATWORK_ORDER);
+            entry.setChannel(NotificationType.CHATWORK_ORDER.getChannel());
+            entry.setPayload(objectMapper.writeValueAsString(payload));
+            entry.setNextAttemptAt(LocalDateTime.now());
+            entries.add(entry);
+        }
+        when(outboxRepository.findDueForUpdate(any(), any())).thenReturn(entries);
+        when(outboxRepository.findAllById(any())).thenReturn(entries);
+        return entries;
+    }
+
+    private static OrderDto order(long id) {
+        OrderDto order = new OrderDto();
+        order.setId(id);
+        order.setTotalAmount(BigDecimal.TEN);
+        order.setPaymentMethod(PaymentMethod.COD);
+        return order;
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.foodanddrinkproject.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.foodanddrinkproject.cache.ProductCatalogCache;
+import org.example.foodanddrinkproject.dto.ProductDto;
+import org.example.foodanddrinkproject.entity.Product;
+import org.example.foodanddrinkproject.enums.ProductType;
+import org.example.foodanddrinkproject.inventory.HotStockLedger;
+import org.example.foodanddrinkproject.media.ImageVariants;
+import org.example.foodanddrinkproject.repository.CategoryRepository;
+import org.example.foodanddrinkproject.repository.ProductRepository;
+import org.example.foodanddrinkproject.repository.specification.ProductSpecification;
+import org.example.foodanddrinkproject.search.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductServiceImplTest {
+
+    private ProductRepository productRepository;
+    private ProductSearchIndex productSearchIndex;
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        productSearchIndex = mock(ProductSearchIndex.class);
+        when(productSearchIndex.isReady()).thenReturn(true);
+        productService = new ProductServiceImpl(
+                productRepository,
+                new ProductSpecification(),
+                mock(CategoryRepository.class),
+                productSearchIndex,
+                new ProductCatalogCache(new SimpleMeterRegistry(), 100, 100, 60),
+                mock(ApplicationEventPublisher.class),
+                mock(ImageVariants.class),
+                mock(HotStockLedger.class));
+    }
+
+    @Test
+    void textSearchLoadsOnlyTheRequestedPageInRankOrder() {
+        when(productSearchIndex.search("coffee", null)).thenReturn(List.of(5L, 3L, 9L, 1L, 7L));
+        when(productRepository.findAll(any(Specification.class))).thenReturn(products(1L, 9L));
+
+        Page<ProductDto> page = productService.getAllProducts(
+                "coffee", null, null, null, null, null, null, PageRequest.of(1, 2));
+
+        assertThat(ids(page)).containsExactly(9L, 1L);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        verify(productRepository, never()).findIds(any(), any());
+    }
+
+    @Test
+    void filteredTextSearchKeepsRankOrderOfMatchesPassingTheFilters() {
+        when(productSearchIndex.search("coffee", null)).thenReturn(List.of(5L, 3L, 9L));
+        when(productRepository.findIds(any(), eq(Sort.unsorted()))).thenReturn(List.of(3L, 5L));
+        when(productRepository.findAll(any(Specification.class))).thenReturn(products(3L, 5L));
+
+        Page<ProductDto> page = productService.getAllProducts(
+                "coffee", null, 1, null, null, null, null, PageRequest.of(0, 10));
+
+        assertThat(ids(page)).containsExactly(5L, 3L);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void sortedTextSearchFollowsTheRequestedSort() {
+        Sort byPrice = Sort.by("price");
+        when(productSearchIndex.search("coffee", null)).thenReturn(List.of(5L, 3L, 9L));
+        when(productRepository.findIds(any(), eq(byPrice))).thenReturn(List.of(9L, 5L, 3L));
+        when(productRepository.findAll(any(Specification.class))).thenReturn(products(3L, 5L, 9L));
+
+        Page<ProductDto> page = productService.getAllProducts(
+                "coffee", null, null, null, null, null, null, PageRequest.of(0, 2, byPrice));
+
+        assertThat(ids(page)).containsExactly(9L, 5L);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void pageBeyondTheMatchesLoadsNothing() {
+        when(productSearchIndex.search("coffee", null)).thenReturn(List.of(5L, 3L));
+
+        Page<ProductDto> page = productService.getAllProducts(
+                "coffee", null, null, null, null, null, null, PageRequest.of(3, 2));
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        verify(productRepository, never()).findAll(any(Specification.class));
+    }
+
+    private static List<Product> products(Long... ids) {
+        return Arrays.stream(ids).map(id -> {
+            Product product = new Product();
+            product.setId(id);
+            product.setProductType(ProductType.DRINK);
+            return product;
+        }).toList();
+    }
+
+    private static List<Long> ids(Page<ProductDto> page) {
+        return page.getContent().stream().map(ProductDto::getId).toList();
+    }
+}